@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sudowars.Model.Difficulty.Difficulty;
+import org.sudowars.Model.Sudoku.Sudoku;
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.SudokuManagement.Generator.Generator;
+
+/**
+ * JMH benchmark of the {@link Generator}. One operation generates a sudoku of the target difficulty 
+ * from the next solved sudoku of the corpus. The sudoku is not added to a pool, so the benchmark 
+ * measures {@link Generator#run()} without writing the sudoku file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+	
+	@Param({"9x9Hard", "16x16Hard"})
+	public String corpus;
+	
+	@Param({"Easy", "Medium", "Hard"})
+	public String targetDifficulty;
+	
+	@Param({"true", "false"})
+	public boolean diggingIncrementally;
+	
+	private List<Sudoku<DataCell>> sudokus;
+	private Difficulty difficulty;
+	private int nextSudoku;
+	
+	/**
+	 * Loads the corpus
+	 */
+	@Setup
+	public void setUp() {
+		this.sudokus = SudokuCorpus.load(this.corpus);
+		this.difficulty = SudokuCorpus.getDifficulty(this.targetDifficulty);
+		this.nextSudoku = 0;
+	}
+	
+	/**
+	 * Generates a sudoku
+	 * @return the generated sudoku
+	 */
+	@Benchmark
+	public Sudoku<DataCell> generate() {
+		
+		Sudoku<DataCell> baseSudoku = this.sudokus.get(this.nextSudoku);
+		this.nextSudoku = (this.nextSudoku + 1) % this.sudokus.size();
+		
+		Generator generator = new Generator();
+		generator.setDiggingIncrementally(this.diggingIncrementally);
+		generator.setTargetSudokuProperties(this.difficulty, baseSudoku.clone());
+		return generator.createSudoku();
+		
+	}
+	
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this package with the GC profiler, so the results report the 
+ * allocated bytes per operation next to the time per operation.
+ * 
+ * Usage: <code>JmhBenchmarkRunner [regexp]</code>, the regular expression selects the benchmarks 
+ * and defaults to all benchmarks of this package.
+ */
+public class JmhBenchmarkRunner {
+	
+	/**
+	 * Runs the benchmarks
+	 * @param args the regular expression of the benchmarks to run
+	 * @throws RunnerException if a benchmark failed
+	 */
+	public static void main(String[] args) throws RunnerException {
+		
+		String include = (args.length > 0) ? args[0] : JmhBenchmarkRunner.class.getPackage().getName() + ".*";
+		
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.build();
+		
+		new Runner(options).run();
+		
+	}
+	
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Benchmark;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.sudowars.Model.Difficulty.DifficultyHard;
+import org.sudowars.Model.Solver.BacktrackingSolver;
+import org.sudowars.Model.Solver.NFishStrategy;
+import org.sudowars.Model.Solver.SolverStrategy;
+import org.sudowars.Model.Sudoku.Sudoku;
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.Field;
+import org.sudowars.Model.Sudoku.Field.SquareStructure;
+import org.sudowars.Model.SudokuManagement.Pool.SudokuFilePool;
+
+/**
+ * Measures the solve time of the {@link BacktrackingSolver} with and without the {@link NFishStrategy} 
+ * on the initial hard sudokus of the {@link SudokuFilePool}. Both solvers are measured with and without 
+ * the propagation of singles, the rating solver of the generator does not propagate them.
+ * 
+ * Usage: <code>NFishBenchmark [rounds]</code>
+ */
+public class NFishBenchmark {
+	
+	private static final int WARMUP_ROUNDS = 3;
+	
+	/**
+	 * Runs the benchmark
+	 * @param args the number of measured rounds
+	 */
+	public static void main(String[] args) {
+		
+		int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 10;
+		
+		for (int size : new int[] {9, 16}) {
+			
+			List<Sudoku<DataCell>> sudokus = SudokuFilePool.getInitialSudokus(new SquareStructure(size), new DifficultyHard());
+			
+			for (boolean propagatingSingles : new boolean[] {true, false}) {
+				
+				BacktrackingSolver withoutFish = createSolver(false, propagatingSingles);
+				BacktrackingSolver withFish = createSolver(true, propagatingSingles);
+				
+				//both solvers have to find the same solutions
+				for (Sudoku<DataCell> sudoku : sudokus) {
+					if (!isSolution(sudoku, withoutFish.solve(getInitialField(sudoku), sudoku.getDependencyManager())) 
+							|| !isSolution(sudoku, withFish.solve(getInitialField(sudoku), sudoku.getDependencyManager()))) {
+						throw new IllegalStateException("solver did not find the solution of the sudoku");
+					}
+				}
+				
+				for (int i = 0; i < WARMUP_ROUNDS; i++) {
+					solveAll(withoutFish, sudokus);
+					solveAll(withFish, sudokus);
+				}
+				
+				long withoutFishTime = 0;
+				long withFishTime = 0;
+				for (int i = 0; i < rounds; i++) {
+					withoutFishTime += solveAll(withoutFish, sudokus);
+					withFishTime += solveAll(withFish, sudokus);
+				}
+				
+				System.out.println(String.format("%dx%d hard, %d sudokus, %d rounds, %s singles", size, size, sudokus.size(), rounds, 
+						propagatingSingles ? "propagated" : "searched"));
+				System.out.println(String.format("without n-Fish: %8.2f ms per round", withoutFishTime / (rounds * 1e6)));
+				System.out.println(String.format("with n-Fish:    %8.2f ms per round", withFishTime / (rounds * 1e6)));
+				System.out.println(String.format("speedup:        %8.2f", (double) withoutFishTime / (double) withFishTime));
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Creates a solver with or without the n-Fish strategy
+	 * @param fish <code>true</code> if the solver uses the n-Fish strategy, <code>false</code> otherwise
+	 * @param propagatingSingles <code>true</code> if the solver propagates the singles, <code>false</code> otherwise
+	 * @return the solver
+	 */
+	private static BacktrackingSolver createSolver(boolean fish, boolean propagatingSingles) {
+		
+		BacktrackingSolver solver = new BacktrackingSolver();
+		solver.setPropagatingSingles(propagatingSingles);
+		
+		List<SolverStrategy> strategies = solver.getSolveStrategies();
+		Iterator<SolverStrategy> iterator = strategies.iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next() instanceof NFishStrategy) iterator.remove();
+		}
+		if (fish) strategies.add(new NFishStrategy(20));
+		
+		return solver;
+		
+	}
+	
+	/**
+	 * Solves all sudokus and returns the elapsed time
+	 * @param solver the solver to use
+	 * @param sudokus the sudokus to solve
+	 * @return the elapsed time in nanoseconds
+	 */
+	private static long solveAll(BacktrackingSolver solver, List<Sudoku<DataCell>> sudokus) {
+		
+		long start = System.nanoTime();
+		for (Sudoku<DataCell> sudoku : sudokus) {
+			solver.solve(getInitialField(sudoku), sudoku.getDependencyManager());
+		}
+		return System.nanoTime() - start;
+		
+	}
+	
+	/**
+	 * Returns the field of a sudoku where only the initial cells are set
+	 * @param sudoku the sudoku
+	 * @return the initial field
+	 */
+	private static Field<DataCell> getInitialField(Sudoku<DataCell> sudoku) {
+		
+		Field<DataCell> initialField = sudoku.getField().clone();
+		for (DataCell cell : initialField.getCells()) {
+			if (!cell.isInitial()) cell.setValue(DataCell.NOT_SET);
+		}
+		return initialField;
+		
+	}
+	
+	/**
+	 * Checks if the given field is the solution of the sudoku
+	 * @param sudoku the solved sudoku
+	 * @param solution the found solution
+	 * @return <code>true</code> if the field is the solution, <code>false</code> otherwise
+	 */
+	private static boolean isSolution(Sudoku<DataCell> sudoku, Field<DataCell> solution) {
+		
+		if (solution == null) return false;
+		for (DataCell cell : sudoku.getField().getCells()) {
+			if (solution.getCell(cell.getIndex()).getValue() != cell.getValue()) return false;
+		}
+		return true;
+		
+	}
+	
+}
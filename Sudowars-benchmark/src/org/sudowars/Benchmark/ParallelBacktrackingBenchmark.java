@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Benchmark;
+
+import java.util.List;
+
+import org.sudowars.Model.Difficulty.DifficultyHard;
+import org.sudowars.Model.Solver.BacktrackingSolver;
+import org.sudowars.Model.Sudoku.Sudoku;
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.Field;
+import org.sudowars.Model.Sudoku.Field.SquareStructure;
+import org.sudowars.Model.SudokuManagement.Pool.SudokuFilePool;
+
+/**
+ * Measures the speedup of the concurrent analysis of backtracking candidates in the 
+ * {@link BacktrackingSolver} on the initial 16x16 hard sudokus of the {@link SudokuFilePool}.
+ * 
+ * Usage: <code>ParallelBacktrackingBenchmark [parallelism] [rounds]</code>, the parallelism 
+ * defaults to the number of available processors.
+ */
+public class ParallelBacktrackingBenchmark {
+	
+	private static final int WARMUP_ROUNDS = 3;
+	
+	/**
+	 * Runs the benchmark
+	 * @param args the degree of parallelism and the number of measured rounds
+	 */
+	public static void main(String[] args) {
+		
+		int parallelism = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+		
+		List<Sudoku<DataCell>> sudokus = SudokuFilePool.getInitialSudokus(new SquareStructure(16), new DifficultyHard());
+		
+		BacktrackingSolver sequentialSolver = new BacktrackingSolver();
+		BacktrackingSolver parallelSolver = new BacktrackingSolver();
+		parallelSolver.setParallelism(parallelism);
+		
+		//both solvers have to find the same solutions
+		for (Sudoku<DataCell> sudoku : sudokus) {
+			Field<DataCell> sequentialSolution = sequentialSolver.solve(getInitialField(sudoku), sudoku.getDependencyManager());
+			Field<DataCell> parallelSolution = parallelSolver.solve(getInitialField(sudoku), sudoku.getDependencyManager());
+			if (!isSolution(sudoku, sequentialSolution) || !isSolution(sudoku, parallelSolution)) {
+				throw new IllegalStateException("solver did not find the solution of the sudoku");
+			}
+		}
+		
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			solveAll(sequentialSolver, sudokus);
+			solveAll(parallelSolver, sudokus);
+		}
+		
+		long sequentialTime = 0;
+		long parallelTime = 0;
+		for (int i = 0; i < rounds; i++) {
+			sequentialTime += solveAll(sequentialSolver, sudokus);
+			parallelTime += solveAll(parallelSolver, sudokus);
+		}
+		
+		System.out.println(String.format("%d sudokus, %d rounds, parallelism %d", sudokus.size(), rounds, parallelism));
+		System.out.println(String.format("sequential: %8.2f ms per round", sequentialTime / (rounds * 1e6)));
+		System.out.println(String.format("parallel:   %8.2f ms per round", parallelTime / (rounds * 1e6)));
+		System.out.println(String.format("speedup:    %8.2f", (double) sequentialTime / (double) parallelTime));
+		
+	}
+	
+	/**
+	 * Solves all sudokus and returns the elapsed time
+	 * @param solver the solver to use
+	 * @param sudokus the sudokus to solve
+	 * @return the elapsed time in nanoseconds
+	 */
+	private static long solveAll(BacktrackingSolver solver, List<Sudoku<DataCell>> sudokus) {
+		
+		long start = System.nanoTime();
+		for (Sudoku<DataCell> sudoku : sudokus) {
+			solver.solve(getInitialField(sudoku), sudoku.getDependencyManager());
+		}
+		return System.nanoTime() - start;
+		
+	}
+	
+	/**
+	 * Returns the field of a sudoku where only the initial cells are set
+	 * @param sudoku the sudoku
+	 * @return the initial field
+	 */
+	private static Field<DataCell> getInitialField(Sudoku<DataCell> sudoku) {
+		
+		Field<DataCell> initialField = sudoku.getField().clone();
+		for (DataCell cell : initialField.getCells()) {
+			if (!cell.isInitial()) cell.setValue(DataCell.NOT_SET);
+		}
+		return initialField;
+		
+	}
+	
+	/**
+	 * Checks if the given field is the solution of the sudoku
+	 * @param sudoku the solved sudoku
+	 * @param solution the found solution
+	 * @return <code>true</code> if the field is the solution, <code>false</code> otherwise
+	 */
+	private static boolean isSolution(Sudoku<DataCell> sudoku, Field<DataCell> solution) {
+		
+		if (solution == null) return false;
+		for (DataCell cell : sudoku.getField().getCells()) {
+			if (solution.getCell(cell.getIndex()).getValue() != cell.getValue()) return false;
+		}
+		return true;
+		
+	}
+	
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sudowars.Model.Sudoku.Sudoku;
+import org.sudowars.Model.Sudoku.Field.Cell;
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.Field;
+import org.sudowars.Model.Sudoku.RuleManagement.DependencyGroup;
+import org.sudowars.Model.Sudoku.RuleManagement.DependencyManager;
+import org.sudowars.Model.Sudoku.RuleManagement.NoDuplicatesRule;
+
+/**
+ * JMH benchmark of the rule evaluation. One operation asks the rules of all groups of all unset 
+ * cells of the corpus for the valid values, which is the work of building the candidates, either 
+ * as a list or as a mask.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleBenchmark {
+	
+	@Param({"9x9Easy", "9x9Hard", "16x16Easy", "16x16Hard", "FileIO9x9Easy", "FileIO16x16Easy"})
+	public String corpus;
+	
+	//the evaluated field, group and cell of every rule call
+	private List<Field<Cell>> fields;
+	private List<DependencyGroup> groups;
+	private List<Cell> cells;
+	
+	/**
+	 * Loads the corpus and collects the groups of all unset cells
+	 */
+	@Setup
+	public void setUp() {
+		
+		this.fields = new ArrayList<Field<Cell>>();
+		this.groups = new ArrayList<DependencyGroup>();
+		this.cells = new ArrayList<Cell>();
+		
+		for (Sudoku<DataCell> sudoku : SudokuCorpus.load(this.corpus)) {
+			Field<Cell> field = SudokuCorpus.getInitialField(sudoku).convert();
+			DependencyManager dependencyManager = sudoku.getDependencyManager();
+			for (Cell cell : field.getCells()) {
+				if (cell.isSet()) continue;
+				for (int groupId : dependencyManager.getGroupIdsOfCell(cell.getIndex())) {
+					DependencyGroup group = dependencyManager.getDependencyGroup(groupId);
+					if (!(group.getRule() instanceof NoDuplicatesRule)) continue;
+					this.fields.add(field);
+					this.groups.add(group);
+					this.cells.add(cell);
+				}
+			}
+		}
+		
+	}
+	
+	/**
+	 * Evaluates {@link NoDuplicatesRule#getValidValues(Field, DependencyGroup, Cell)} for all collected groups
+	 * @param blackhole consumes the valid values
+	 */
+	@Benchmark
+	public void getValidValues(Blackhole blackhole) {
+		
+		for (int i = 0; i < this.groups.size(); i++) {
+			DependencyGroup group = this.groups.get(i);
+			blackhole.consume(group.getRule().getValidValues(this.fields.get(i), group, this.cells.get(i)));
+		}
+		
+	}
+	
+	/**
+	 * Evaluates {@link NoDuplicatesRule#getValidMask(Field, DependencyGroup, Cell)} for all collected groups
+	 * @param blackhole consumes the valid masks
+	 */
+	@Benchmark
+	public void getValidMask(Blackhole blackhole) {
+		
+		for (int i = 0; i < this.groups.size(); i++) {
+			DependencyGroup group = this.groups.get(i);
+			blackhole.consume(group.getRule().getValidMask(this.fields.get(i), group, this.cells.get(i)));
+		}
+		
+	}
+	
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sudowars.Model.Solver.BacktrackingSolver;
+import org.sudowars.Model.Solver.HumanSolver;
+import org.sudowars.Model.Solver.SolverState;
+import org.sudowars.Model.Sudoku.Sudoku;
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.Field;
+
+/**
+ * JMH benchmarks of the solvers. One operation handles all sudokus of the corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+	
+	@Param({"9x9Easy", "9x9Medium", "9x9Hard", "16x16Easy", "16x16Medium", "16x16Hard", "FileIO9x9Easy", "FileIO16x16Easy"})
+	public String corpus;
+	
+	private List<Sudoku<DataCell>> sudokus;
+	private List<Field<DataCell>> initialFields;
+	private BacktrackingSolver backtrackingSolver;
+	private HumanSolver humanSolver;
+	
+	/**
+	 * Loads the corpus and creates the solvers
+	 */
+	@Setup
+	public void setUp() {
+		
+		this.sudokus = SudokuCorpus.load(this.corpus);
+		this.initialFields = new ArrayList<Field<DataCell>>(this.sudokus.size());
+		for (Sudoku<DataCell> sudoku : this.sudokus) {
+			this.initialFields.add(SudokuCorpus.getInitialField(sudoku));
+		}
+		
+		this.backtrackingSolver = new BacktrackingSolver();
+		this.humanSolver = new HumanSolver();
+		
+	}
+	
+	/**
+	 * Solves the sudokus with the {@link BacktrackingSolver}
+	 * @param blackhole consumes the solutions
+	 */
+	@Benchmark
+	public void solve(Blackhole blackhole) {
+		
+		for (int i = 0; i < this.sudokus.size(); i++) {
+			blackhole.consume(this.backtrackingSolver.solve(this.initialFields.get(i), this.sudokus.get(i).getDependencyManager()));
+		}
+		
+	}
+	
+	/**
+	 * Creates the {@link SolverState}s of the sudokus, including their candidates
+	 * @param blackhole consumes the states
+	 */
+	@Benchmark
+	public void createSolverState(Blackhole blackhole) {
+		
+		for (int i = 0; i < this.sudokus.size(); i++) {
+			blackhole.consume(new SolverState(this.initialFields.get(i).clone().convert(), this.sudokus.get(i).getDependencyManager()));
+		}
+		
+	}
+	
+	/**
+	 * Searches the next cell to solve with the {@link HumanSolver}, the time includes the creation of the 
+	 * {@link SolverState} measured by {@link #createSolverState(Blackhole)}
+	 * @param blackhole consumes the solve steps
+	 */
+	@Benchmark
+	public void getCellToSolveNext(Blackhole blackhole) {
+		
+		for (int i = 0; i < this.sudokus.size(); i++) {
+			SolverState state = new SolverState(this.initialFields.get(i).clone().convert(), this.sudokus.get(i).getDependencyManager());
+			blackhole.consume(this.humanSolver.getCellToSolveNext(state));
+		}
+		
+	}
+	
+}
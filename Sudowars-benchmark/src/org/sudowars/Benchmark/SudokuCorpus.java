@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sudowars.Model.Difficulty.Difficulty;
+import org.sudowars.Model.Difficulty.DifficultyEasy;
+import org.sudowars.Model.Difficulty.DifficultyHard;
+import org.sudowars.Model.Difficulty.DifficultyMedium;
+import org.sudowars.Model.Sudoku.Sudoku;
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.Field;
+import org.sudowars.Model.Sudoku.Field.SquareStructure;
+import org.sudowars.Model.SudokuManagement.IO.FileIO;
+import org.sudowars.Model.SudokuManagement.Pool.SudokuFilePool;
+
+/**
+ * Provides the embedded sudokus of the {@link SudokuFilePool} and the {@link FileIO} as input of the benchmarks. 
+ * The sudokus hold their solution, the initial cells are marked.
+ */
+final class SudokuCorpus {
+	
+	/**
+	 * Prefix of the corpora of the {@link FileIO} test sudokus
+	 */
+	static final String FILE_IO_PREFIX = "FileIO";
+	
+	/**
+	 * Initialises a new instance of the {@link SudokuCorpus} class
+	 */
+	private SudokuCorpus() {
+	}
+	
+	/**
+	 * Returns the sudokus of a corpus
+	 * @param name the name of the corpus, e.g. <code>9x9Hard</code> for the initial hard 9x9 sudokus of the 
+	 * 			pool or <code>FileIO16x16Easy</code> for the easy 16x16 test sudoku of the {@link FileIO}
+	 * @return the sudokus of the corpus
+	 * @throws IllegalArgumentException if there is no corpus with the given name
+	 */
+	static List<Sudoku<DataCell>> load(String name) throws IllegalArgumentException {
+		
+		if (name.equals(FILE_IO_PREFIX + "9x9Easy")) {
+			List<Sudoku<DataCell>> result = new ArrayList<Sudoku<DataCell>>(1);
+			result.add(FileIO.createTestSudoku9x9Easy());
+			return result;
+		}
+		
+		if (name.equals(FILE_IO_PREFIX + "16x16Easy")) {
+			List<Sudoku<DataCell>> result = new ArrayList<Sudoku<DataCell>>(1);
+			result.add(FileIO.createTestSudoku16x16Easy());
+			return result;
+		}
+		
+		String[] parts = name.split("x", 2);
+		int size = Integer.parseInt(parts[0]);
+		if (!parts[1].startsWith(parts[0])) {
+			throw new IllegalArgumentException("unknown corpus " + name);
+		}
+		
+		return SudokuFilePool.getInitialSudokus(new SquareStructure(size), getDifficulty(parts[1].substring(parts[0].length())));
+		
+	}
+	
+	/**
+	 * Returns the difficulty with the given name
+	 * @param name the name of the difficulty, <code>Easy</code>, <code>Medium</code> or <code>Hard</code>
+	 * @return the difficulty
+	 * @throws IllegalArgumentException if there is no difficulty with the given name
+	 */
+	static Difficulty getDifficulty(String name) throws IllegalArgumentException {
+		
+		if (name.equals("Easy")) return new DifficultyEasy();
+		if (name.equals("Medium")) return new DifficultyMedium();
+		if (name.equals("Hard")) return new DifficultyHard();
+		throw new IllegalArgumentException("unknown difficulty " + name);
+		
+	}
+	
+	/**
+	 * Returns the field of a sudoku where only the initial cells are set
+	 * @param sudoku the sudoku
+	 * @return the initial field
+	 */
+	static Field<DataCell> getInitialField(Sudoku<DataCell> sudoku) {
+		
+		Field<DataCell> initialField = sudoku.getField().clone();
+		for (DataCell cell : initialField.getCells()) {
+			if (!cell.isInitial()) cell.setValue(DataCell.NOT_SET);
+		}
+		return initialField;
+		
+	}
+	
+}
@@ -368,18 +368,20 @@ public class BluetoothConnection implements Serializable {
 	}
 	
 	private void debugHex(byte[] data, int begin, String logd) {
-		String out = "";
+		if (!DebugHelper.isLogging(DebugHelper.PackageName.BluetoothConnection))
+			return;
+		StringBuilder out = new StringBuilder();
 		for (int n = begin; n < data.length; n++) {
-			out += " ";
+			out.append(' ');
 			if (n % 16 == 0 && n != 0){
-				DebugHelper.log(DebugHelper.PackageName.BluetoothConnection, out);
-				out = "";
+				DebugHelper.log(DebugHelper.PackageName.BluetoothConnection, out.toString());
+				out.setLength(0);
 			}
 			if ((data[n] & 0xFF) < 16)
-				out += "0";
-			out += Integer.toHexString(data[n] & 0xFF);
+				out.append('0');
+			out.append(Integer.toHexString(data[n] & 0xFF));
 		}
-		DebugHelper.log(DebugHelper.PackageName.BluetoothConnection, out);
+		DebugHelper.log(DebugHelper.PackageName.BluetoothConnection, out.toString());
 	}
 	
 	private void debugHex(byte[] data, String logd){
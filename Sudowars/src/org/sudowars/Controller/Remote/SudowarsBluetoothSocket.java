@@ -283,7 +283,8 @@ public class SudowarsBluetoothSocket implements SudowarsSocket, Serializable {
 			return false;
 		try {
 			this.inp.read(data);
-			DebugHelper.log(DebugHelper.PackageName.BluetoothConnection, "Read " + data.length + " Bytes");
+			if (DebugHelper.isLogging(DebugHelper.PackageName.BluetoothConnection))
+				DebugHelper.log(DebugHelper.PackageName.BluetoothConnection, "Read " + data.length + " Bytes");
 		} catch (IOException e) {
 			if (data.length < 30)
 				close();
@@ -309,7 +310,8 @@ public class SudowarsBluetoothSocket implements SudowarsSocket, Serializable {
 					}
 				}
 				
-				DebugHelper.log(DebugHelper.PackageName.BluetoothConnection, "Written " + data.length + " Bytes");
+				if (DebugHelper.isLogging(DebugHelper.PackageName.BluetoothConnection))
+					DebugHelper.log(DebugHelper.PackageName.BluetoothConnection, "Written " + data.length + " Bytes");
 			} catch (IOException e) {
 				DebugHelper.log(DebugHelper.PackageName.BluetoothConnection, "Could not send data!!");
 				close();
@@ -77,11 +77,20 @@ public class DebugHelper {
 		PRINT_NOTHING, PRINT_SELECTED, PRINT_ALL
 	}
 	
+	/** The default number of retained logs. */
+	public static final int DEFAULT_LOG_CAPACITY = 1000;
+	
 	/** The DEBU g_ state. */
-	private static DebugState DEBUG_STATE = DebugState.PRINT_NOTHING;
+	private static volatile DebugState DEBUG_STATE = DebugState.PRINT_NOTHING;
+	
+	/** The logs. (They are not saved in this ring buffer while DEBUG_STATE is PRINT_NONE, the oldest log is overwritten if it is full) */
+	private static String[] logs = new String[DEFAULT_LOG_CAPACITY];
 	
-	/** The logs. (They are not saved in this list while DEBUG_STATE is PRINT_NONE */
-	private static LinkedList<String> logs = new LinkedList<String>();
+	/** The index of the oldest log in the ring buffer. */
+	private static int firstLog = 0;
+	
+	/** The number of logs in the ring buffer. */
+	private static int logCount = 0;
 	
 	/** The shown packages. */
 	private static LinkedList<DebugHelper.PackageName> shownPackages= new LinkedList<DebugHelper.PackageName>(); 
@@ -129,6 +138,17 @@ public class DebugHelper {
 		DebugHelper.printSudokuField(sudoku.getField(), true);
 	}
 	
+	/**
+	 * Checks if messages of a package are logged. Call sites which build their message by concatenation 
+	 * or loops should check it first, so a disabled log does not cost anything.
+	 *
+	 * @param part the PackageName
+	 * @return <code>true</code> if messages of the package are retained or printed, <code>false</code> otherwise
+	 */
+	public static boolean isLogging(DebugHelper.PackageName part) {
+		return DEBUG_STATE != DebugState.PRINT_NOTHING;
+	}
+	
 	/**
 	 * Log. It does what the name says
 	 *
@@ -137,7 +157,7 @@ public class DebugHelper {
 	 */
 	public static void log(DebugHelper.PackageName part, String message) {
 		if (!(DEBUG_STATE == DebugState.PRINT_NOTHING)) {
-			logs.addLast("Sudowars" + part + ": " + message);
+			addLog("Sudowars" + part + ": " + message);
 			if (DEBUG_STATE == DebugState.PRINT_ALL) {
 				Log.d("Sudowars", part + ": " + message);
 			} else {
@@ -156,14 +176,56 @@ public class DebugHelper {
 	 */
 	public static LinkedList<String> getAllLogsForPackage(DebugHelper.PackageName packageName) {
 		LinkedList<String> returnList = new LinkedList<String>();
-		for (String s : logs) {
-			if (s.contains(packageName.toString())) {
-				returnList.addLast(s);
+		synchronized (DebugHelper.class) {
+			for (int i = 0; i < logCount; i++) {
+				String s = logs[(firstLog + i) % logs.length];
+				if (s.contains(packageName.toString())) {
+					returnList.addLast(s);
+				}
 			}
 		}
 		return returnList;
 	}
 	
+	/**
+	 * Adds a log to the ring buffer, the oldest log is dropped if the buffer is full.
+	 *
+	 * @param log the log
+	 */
+	private static synchronized void addLog(String log) {
+		if (logCount < logs.length) {
+			logs[(firstLog + logCount) % logs.length] = log;
+			logCount++;
+		} else {
+			logs[firstLog] = log;
+			firstLog = (firstLog + 1) % logs.length;
+		}
+	}
+	
+	/**
+	 * Sets the number of retained logs. The newest logs are kept if the capacity is reduced.
+	 *
+	 * @param capacity the maximum number of retained logs
+	 * @throws IllegalArgumentException if the given capacity is smaller than one
+	 */
+	public static synchronized void setLogCapacity(int capacity) throws IllegalArgumentException {
+		
+		if (capacity < 1) {
+			throw new IllegalArgumentException("given capacity has to be greater than zero");
+		}
+		
+		String[] newLogs = new String[capacity];
+		int newLogCount = Math.min(logCount, capacity);
+		for (int i = 0; i < newLogCount; i++) {
+			newLogs[i] = logs[(firstLog + logCount - newLogCount + i) % logs.length];
+		}
+		
+		logs = newLogs;
+		firstLog = 0;
+		logCount = newLogCount;
+		
+	}
+	
 	/**
 	 * Prints the all logs for package. (Except logs which were written while DebugSate was PRINT_NONE)
 	 *
@@ -203,9 +265,9 @@ public class DebugHelper {
 	 * @return the list string
 	 */
 	public static String getListString(List<Integer> list) {
-		String listStr = "";
-		for (Object element : list) listStr += (listStr.length() == 0 ? "" : ", ") + element.toString();
-		return listStr;
+		StringBuilder listStr = new StringBuilder();
+		for (Object element : list) listStr.append(listStr.length() == 0 ? "" : ", ").append(element.toString());
+		return listStr.toString();
 	}
 	
 	// --- print complete Sudoku ------------------------------------------------------------------------------------------------------------------------
@@ -312,6 +374,9 @@ public class DebugHelper {
 	 */
 	public static void printCompleteSudoku(DebugHelper.PackageName part, Field<Cell> field, NoteManager notes) {
 		
+		if (!isLogging(part))
+			return;
+		
 		assert(field.getStructure() instanceof SquareStructure);
 				
 		int fieldWidth = field.getStructure().getWidth();
@@ -338,7 +403,9 @@ public class DebugHelper {
 	 * @param currentState the current state
 	 */
 	public static void printCompleteSudoku(DebugHelper.PackageName part, SolverState currentState) {
-		printCompleteSudoku(part, currentState.getField(), currentState.getNoteManager());
+		if (!isLogging(part))
+			return;
+		printCompleteSudoku(part, currentState.getField(), currentState.getCandidates().toNoteManager(currentState.getField()));
 	}
 	
 	
@@ -77,6 +77,9 @@ public abstract class Game implements Serializable {
 	transient private List<StopWatchTickEventListener> registeredOnStopWatchTickObservers;
 	transient private List<GameAbortedEventListener> registeredOnGameAbortObservers;
 	
+	//set and incorrect cells of the sudoku, rebuilt from the field after deserialization
+	transient private GameCellCounter cellCounter;
+	
 	protected final Sudoku<GameCell> sudoku;
 	protected List<PlayerSlot> participatingPlayers;
 	
@@ -100,6 +103,7 @@ public abstract class Game implements Serializable {
 		}
 		this.sudoku = createGameSudoku(sudoku.getField(), sudoku.getDependencyManager());
 		this.stopwatch = new GameStopWatch(this);
+		this.cellCounter = new GameCellCounter(this.sudoku.getField());
 		initializeObserverLists();
 	}
 		
@@ -112,6 +116,7 @@ public abstract class Game implements Serializable {
 	
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
+		this.cellCounter = new GameCellCounter(this.sudoku.getField());
 		initializeObserverLists();
 	}
 	
@@ -525,21 +530,12 @@ public abstract class Game implements Serializable {
 		return field.getCell(index);
 	}
 	
-	protected static boolean successfullySolved(Sudoku<GameCell> sudoku) {
-		assert sudoku != null;
-		
-		boolean result = false;
-		Field<GameCell> field = sudoku.getField();
-		if (field.isFilled()) {
-			result = true;
-			for (GameCell cell : field.getCells()) {
-				if (cell.getValue() != cell.getSolution()) {
-					result = false;
-					break;
-				}
-			}
-		}
-		return result;
+	/**
+	 * Indicates whether all cells of the game's sudoku hold their solution.
+	 * @return {@code true} if the sudoku is filled without incorrect cells, otherwise {@code false}
+	 */
+	protected boolean successfullySolved() {
+		return this.cellCounter.isFilled() && this.cellCounter.getIncorrectCellCount() == 0;
 	}
 	
 	/**
@@ -603,16 +599,7 @@ public abstract class Game implements Serializable {
 	 * @return number of incorrect filled cells
 	 */
 	public int getIncorrectCellsSize() {
-		int mistakes = 0;
-		List<GameCell> cells = this.sudoku.getField().getCells();
-		
-		for (GameCell c : cells) {
-			if (c.isSet() && c.getValue() != c.getSolution()) {
-				mistakes++;
-			}
-		}
-		
-		return mistakes;
+		return this.cellCounter.getIncorrectCellCount();
 	}
 	
 	/**
@@ -621,14 +608,6 @@ public abstract class Game implements Serializable {
 	 * @return <code>true</code> if the sudoku has incorrect filled cells, otherwise <code>false</code>
 	 */
 	public boolean hasIncorrectCells() {
-		List<GameCell> cells = this.sudoku.getField().getCells();
-		
-		for (GameCell c : cells) {
-			if (c.isSet() && c.getValue() != c.getSolution()) {
-				return true;
-			}
-		}
-		
-		return false;
+		return this.cellCounter.getIncorrectCellCount() > 0;
 	}
 }
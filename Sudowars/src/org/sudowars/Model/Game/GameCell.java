@@ -61,6 +61,9 @@ public class GameCell implements Cell {
 	private static final long TIMESTAMP_UNSET = Long.MIN_VALUE;
 	
 	private long timestamp;
+	
+	//counter of the game the cell belongs to, notified on every change of the value
+	private transient GameCellCounter counter;
 		
 	/**
 	 * Initializes a new instance of the {@link GameCell} class.
@@ -175,7 +178,11 @@ public class GameCell implements Cell {
 		if (value <= DataCell.NOT_SET) {
 			throw new IllegalArgumentException("illegal cell value passed.");
 		}
+		int oldValue = this.currentValue;
 		this.currentValue = value;
+		if (this.counter != null) {
+			this.counter.valueChanged(oldValue, value, this.getSolution());
+		}
 	}
 	
 	/**
@@ -189,8 +196,12 @@ public class GameCell implements Cell {
 	 */
 	void removeValue() {
 		if (!this.isInitial()) {
+			int oldValue = this.currentValue;
 			this.currentValue = DataCell.NOT_SET;
 			this.timestamp = TIMESTAMP_UNSET;
+			if (this.counter != null) {
+				this.counter.valueChanged(oldValue, DataCell.NOT_SET, this.getSolution());
+			}
 		}
 	}
 	
@@ -220,6 +231,14 @@ public class GameCell implements Cell {
 		return result;
 	}
 	
+	/**
+	 * Attaches the counter of the game the cell belongs to.
+	 * @param counter the counter to notify on every change of the value
+	 */
+	void setCounter(GameCellCounter counter) {
+		this.counter = counter;
+	}
+	
 	/**
 	 * Detaches the current instance from the currently attached player.<br>
 	 * This method should be invoked, if the cell's value is removed, i.e. changed to 
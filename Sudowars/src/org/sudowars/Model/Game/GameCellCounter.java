@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Game;
+
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.Field;
+
+/**
+ * This class counts the set and the incorrect {@link GameCell}s of a game. The cells report every change 
+ * of their value, so the game knows whether its sudoku is filled or solved without scanning the field.
+ */
+final class GameCellCounter {
+	
+	private int cellCount;
+	private int setCells;
+	private int incorrectCells;
+	
+	/**
+	 * Initializes a new instance of the {@link GameCellCounter} class with the cells of the given field 
+	 * and attaches it to the cells.
+	 *
+	 * @param field the field of the game
+	 */
+	GameCellCounter(Field<GameCell> field) {
+		assert field != null;
+		
+		for (GameCell cell : field.getCells()) {
+			if (cell == null) {
+				continue;
+			}
+			this.cellCount++;
+			if (cell.isSet()) {
+				this.setCells++;
+				if (cell.getValue() != cell.getSolution()) {
+					this.incorrectCells++;
+				}
+			}
+			cell.setCounter(this);
+		}
+	}
+	
+	/**
+	 * Updates the counters after the value of a cell was changed.
+	 *
+	 * @param oldValue the previous value of the cell, {@link DataCell#NOT_SET} if it was not set
+	 * @param newValue the new value of the cell, {@link DataCell#NOT_SET} if it was removed
+	 * @param solution the solution of the cell
+	 */
+	void valueChanged(int oldValue, int newValue, int solution) {
+		if (oldValue != DataCell.NOT_SET) {
+			this.setCells--;
+			if (oldValue != solution) {
+				this.incorrectCells--;
+			}
+		}
+		if (newValue != DataCell.NOT_SET) {
+			this.setCells++;
+			if (newValue != solution) {
+				this.incorrectCells++;
+			}
+		}
+	}
+	
+	/**
+	 * Indicates whether all cells are set.
+	 *
+	 * @return {@code true} if all cells are set, otherwise {@code false}
+	 */
+	boolean isFilled() {
+		return this.setCells == this.cellCount;
+	}
+	
+	/**
+	 * Gets the number of set cells whose value differs from the solution.
+	 *
+	 * @return the number of incorrect cells
+	 */
+	int getIncorrectCellCount() {
+		return this.incorrectCells;
+	}
+	
+}
@@ -44,9 +44,10 @@
  ******************************************************************************/
 package org.sudowars.Model.Game;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.BitSet;
 import java.util.List;
 
 import org.sudowars.Model.Sudoku.Sudoku;
@@ -55,6 +56,7 @@ import org.sudowars.Model.Sudoku.Field.DataCell;
 import org.sudowars.Model.Sudoku.Field.Field;
 import org.sudowars.Model.Sudoku.RuleManagement.DependencyGroup;
 import org.sudowars.Model.Sudoku.RuleManagement.DependencyManager;
+import org.sudowars.Model.Sudoku.RuleManagement.UsedValueMasks;
 
 /**
  * This class represents a single player game.
@@ -64,7 +66,12 @@ public class SingleplayerGame extends Game {
 	private static final long serialVersionUID = -56340307548778369L;
 	private static final int PLAYER_COUNT = 1;
 	
-	private final List<GameCell> cellsContainingInvalidValues; 
+	//indices of the cells whose value broke a rule when it was set and still breaks it
+	private BitSet invalidCells;
+	
+	//counted values of the groups of a standard ruleset, rebuilt from the field after deserialization
+	private transient UsedValueMasks usedValues;
+	
 	/**
 	 * Initializes a new instance of the {@link SingleplayerGame} class with a given sudoku.
 	 *
@@ -77,7 +84,7 @@ public class SingleplayerGame extends Game {
 		
 		this.participatingPlayers = new ArrayList<PlayerSlot>(PLAYER_COUNT);
 		this.participatingPlayers.add(createPlayerSlot());
-		this.cellsContainingInvalidValues = new LinkedList<GameCell>();
+		this.invalidCells = new BitSet();
 	}
 	
 	/**
@@ -94,7 +101,40 @@ public class SingleplayerGame extends Game {
 	 * @return An {@link Iterable} containing cells with invalid values.
 	 */
 	public Iterable<GameCell> getCellsContainingInvalidValues() {
-		return this.cellsContainingInvalidValues;
+		List<GameCell> result = new ArrayList<GameCell>(this.invalidCells.cardinality());
+		for (int index = this.invalidCells.nextSetBit(0); index >= 0; index = this.invalidCells.nextSetBit(index + 1)) {
+			result.add(this.sudoku.getField().getCell(index));
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the indices of all GameCells which contain an invalid value.
+	 * @return A copy of the {@link BitSet} holding the indices of the cells with invalid values.
+	 */
+	public BitSet getInvalidCellIndices() {
+		return (BitSet) this.invalidCells.clone();
+	}
+	
+	/**
+	 * Indicates whether the GameCell with the given index contains an invalid value.
+	 * @param cellIndex The index of the cell.
+	 * @return {@code true} if the cell contains an invalid value, otherwise {@code false}
+	 */
+	public boolean containsInvalidValue(int cellIndex) {
+		return this.invalidCells.get(cellIndex);
+	}
+	
+	/**
+	 * Gets the counted values of the dependency groups, built from the field on first use.
+	 * @return The {@link UsedValueMasks} of the field, or {@code null} if the rules of the sudoku are no standard ruleset.
+	 */
+	private UsedValueMasks getUsedValues() {
+		DependencyManager depManager = this.sudoku.getDependencyManager();
+		if (this.usedValues == null && UsedValueMasks.isSupported(depManager)) {
+			this.usedValues = new UsedValueMasks(this.sudoku.getField(), depManager);
+		}
+		return this.usedValues;
 	}
 	
 	/**
@@ -132,7 +172,7 @@ public class SingleplayerGame extends Game {
 				updateInvalidCellList(value, gameCell);
 				gameCell.setValue(value, timestamp);
 				onChange(gameCell);
-				if (successfullySolved(this.sudoku)) {
+				if (successfullySolved()) {
 					onSuccessfullyFinish(player);
 				}
 			}
@@ -143,11 +183,22 @@ public class SingleplayerGame extends Game {
 	private void updateInvalidCellList(int value, GameCell gameCell) {
 		assert gameCell != null;
 		
+		UsedValueMasks usedValues = this.getUsedValues();
+		if (usedValues != null) {
+			//the value is invalid if another cell of the groups holds it, the counts are updated for the new value
+			if ((usedValues.getValidMask(gameCell.getIndex()) & (1 << (value - 1))) == 0) {
+				this.invalidCells.set(gameCell.getIndex());
+			}
+			usedValues.setValue(gameCell.getIndex(), value);
+			return;
+		}
+		
 		DependencyManager depManager = this.sudoku.getDependencyManager();
 		Field<Cell> convertedField = this.getSudoku().getField().convert();
-		for (DependencyGroup group : depManager.getDependencyGroupsOfCell(gameCell)) {
-			if (group.getRule().getValidValues(convertedField, group, gameCell).indexOf(value) == -1) {
-				this.cellsContainingInvalidValues.add(gameCell);
+		for (int groupId : depManager.getGroupIdsOfCell(gameCell.getIndex())) {
+			DependencyGroup group = depManager.getDependencyGroup(groupId);
+			if ((group.getRule().getValidMask(convertedField, group, gameCell) & (1 << (value - 1))) == 0) {
+				this.invalidCells.set(gameCell.getIndex());
 				break;
 			}
 		}
@@ -193,9 +244,22 @@ public class SingleplayerGame extends Game {
 		assert gameCell != null && !gameCell.isSet();
 		
 		//cell value was removed, so cell is not invalid anymore
-		this.cellsContainingInvalidValues.remove(gameCell);
-				
-		if (this.cellsContainingInvalidValues.size() > 0) {
+		this.invalidCells.clear(gameCell.getIndex());
+		
+		UsedValueMasks usedValues = this.getUsedValues();
+		if (usedValues != null) {
+			usedValues.setValue(gameCell.getIndex(), DataCell.NOT_SET);
+			
+			//only the invalid cells of the same groups holding the removed value can become valid
+			for (int peer : this.sudoku.getDependencyManager().getPeersOfCell(gameCell.getIndex())) {
+				if (this.invalidCells.get(peer) && usedValues.getValue(peer) == value && !usedValues.isConflicting(peer)) {
+					this.invalidCells.clear(peer);
+				}
+			}
+			return;
+		}
+		
+		if (!this.invalidCells.isEmpty()) {
 			//check other cells who have been previously invalid
 			//if still invalid
 			Field<Cell>	convertedField = this.sudoku.getField().convert();
@@ -203,18 +267,39 @@ public class SingleplayerGame extends Game {
 			
 			boolean valid;
 			
-			//use iterator for ensuring removing during iteration works
-			for (Iterator<GameCell> it = this.cellsContainingInvalidValues.iterator(); it.hasNext(); ) {
-  				GameCell c = it.next();
+			for (int index = this.invalidCells.nextSetBit(0); index >= 0; index = this.invalidCells.nextSetBit(index + 1)) {
+				Cell c = convertedField.getCell(index);
 				valid = true;
-				for (DependencyGroup grp : dependencies.getDependencyGroupsOfCell(c)) {
-					if (grp.getRule().getValidValues(convertedField, grp, c).indexOf(c.getValue()) == -1) {
+				for (int groupId : dependencies.getGroupIdsOfCell(index)) {
+					DependencyGroup grp = dependencies.getDependencyGroup(groupId);
+					if ((grp.getRule().getValidMask(convertedField, grp, c) & (1 << (c.getValue() - 1))) == 0) {
 						valid = false;
 						break;
 					}
 				}
 				if (valid) {
-					it.remove();
+					this.invalidCells.clear(index);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Reads the game and converts the list of invalid cells of games saved before the cells were indexed.
+	 * @param in the stream to read from
+	 * @throws IOException if the stream cannot be read
+	 * @throws ClassNotFoundException if a class of the stream cannot be found
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.invalidCells = (BitSet) fields.get("invalidCells", null);
+		if (this.invalidCells == null) {
+			this.invalidCells = new BitSet();
+			List<GameCell> invalidCellList = (List<GameCell>) fields.get("cellsContainingInvalidValues", null);
+			if (invalidCellList != null) {
+				for (GameCell c : invalidCellList) {
+					this.invalidCells.set(c.getIndex());
 				}
 			}
 		}
@@ -249,7 +334,8 @@ public class SingleplayerGame extends Game {
 			if (playerSlot != null && !this.isAborted() && !this.isPaused()) {
 				//expose all cells first, but do not disperse points for that
 				exposeAllCells(this.sudoku, playerSlot, timestamp);
-				this.cellsContainingInvalidValues.clear();
+				this.invalidCells.clear();
+				this.usedValues = null;
 				onChange(null);
 				onGameAborted(playerSlot);
 			}
@@ -78,8 +78,10 @@ public class BacktrackingSolver extends StrategyExecutor implements Solver {
 		
 		//Tests showed that the n-Fish-strategy works and reduces the lists
 		//of candidates but it did not increase the performance of the solver.
-		//In many situations the additional work to check all possible n-Fishs
-		//result in a longer runtime than without the strategy.
+		//The search by position masks takes less than 3% of the solve time,
+		//but after the clique strategies fish are rarely found and the extra
+		//strategy loops make the hard sudokus of the pool 5-25% slower to
+		//solve (see NFishBenchmark of the benchmark project).
 		//this.solveStrategies.add(new NFishStrategy(20));
 		
 	}
@@ -94,10 +96,9 @@ public class BacktrackingSolver extends StrategyExecutor implements Solver {
 	@Override
 	protected boolean saveCell(SolverState currentState, int solvedCellIndex, int solution){
 		//set value in the current state
-		DataCell solvedCell = (DataCell) currentState.getField().getCell(solvedCellIndex);
-		solvedCell.setValue(solution);
+		currentState.setCellValue(solvedCellIndex, solution);
 		//remove notes
-		currentState.getNoteManager().removeAllNotes(solvedCell);
+		currentState.getCandidates().removeAllCandidates(solvedCellIndex);
 		return true;
 	}
 	
@@ -138,7 +139,9 @@ public class BacktrackingSolver extends StrategyExecutor implements Solver {
 			
 			//execute strategies to solve the field
 			result = this.executeStrategies(currentState, false);
-			DebugHelper.log(DebugHelper.PackageName.Solver, "*** solving process finished : " + result.toString() + " ***");
+			if (DebugHelper.isLogging(DebugHelper.PackageName.Solver)) {
+				DebugHelper.log(DebugHelper.PackageName.Solver, "*** solving process finished : " + result.toString() + " ***");
+			}
 			
 			//save result
 			if (result == StrategyExecutor.ExecuteResult.UNIQUESOLUTION) {
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Solver;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.Field;
+
+/**
+ * This class holds the result of a single field solved by the {@link BatchSolver}: the solution, 
+ * the elapsed time and how often every {@link SolverStrategy} changed the field.
+ */
+public class BatchSolveResult {
+	
+	private final int index;
+	private final Field<DataCell> solution;
+	private final long solveTime;
+	private final Map<Class<? extends SolverStrategy>, Integer> strategyCounts;
+	private final int strategyWeightSum;
+	
+	/**
+	 * Initialises a new instance of the {@link BatchSolveResult} class
+	 * @param index the index of the field in the solved batch
+	 * @param solution the solution of the field, <code>null</code> if the field is not unique solvable
+	 * @param solveTime the elapsed time in nanoseconds
+	 * @param usedStrategies the strategies which changed the field
+	 */
+	BatchSolveResult(int index, Field<DataCell> solution, long solveTime, List<SolverStrategy> usedStrategies) {
+		
+		this.index = index;
+		this.solution = solution;
+		this.solveTime = solveTime;
+		
+		Map<Class<? extends SolverStrategy>, Integer> counts = new LinkedHashMap<Class<? extends SolverStrategy>, Integer>();
+		int weightSum = 0;
+		for (SolverStrategy strategy : usedStrategies) {
+			Integer count = counts.get(strategy.getClass());
+			counts.put(strategy.getClass(), (count == null) ? 1 : count + 1);
+			weightSum += strategy.getStrategyWeight();
+		}
+		this.strategyCounts = Collections.unmodifiableMap(counts);
+		this.strategyWeightSum = weightSum;
+		
+	}
+	
+	/**
+	 * Returns the index of the field in the solved batch
+	 * @return the index of the field
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+	
+	/**
+	 * Returns the solution of the field
+	 * @return the fully filled solution, <code>null</code> if the field is not unique solvable
+	 */
+	public Field<DataCell> getSolution() {
+		return this.solution;
+	}
+	
+	/**
+	 * Indicates if the field was solved
+	 * @return <code>true</code> if the field has a unique solution, <code>false</code> otherwise
+	 */
+	public boolean isSolved() {
+		return this.solution != null;
+	}
+	
+	/**
+	 * Returns the elapsed time to solve the field
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long getSolveTime() {
+		return this.solveTime;
+	}
+	
+	/**
+	 * Returns how often every strategy changed the field, in the order of the first use
+	 * @return the number of uses by the class of the strategy
+	 */
+	public Map<Class<? extends SolverStrategy>, Integer> getStrategyCounts() {
+		return this.strategyCounts;
+	}
+	
+	/**
+	 * Returns the sum of the weights of all uses of the strategies
+	 * @return the sum of the strategy weights
+	 */
+	public int getStrategyWeightSum() {
+		return this.strategyWeightSum;
+	}
+	
+	/**
+	 * Returns a string representation of the result
+	 * @return the string representation
+	 */
+	@Override
+	public String toString() {
+		
+		StringBuilder result = new StringBuilder();
+		result.append("field ").append(this.index).append(": ");
+		result.append(this.isSolved() ? "solved" : "not solved");
+		result.append(", ").append(this.solveTime / 1000000).append(" ms, weight sum ").append(this.strategyWeightSum);
+		for (Map.Entry<Class<? extends SolverStrategy>, Integer> entry : this.strategyCounts.entrySet()) {
+			result.append(", ").append(entry.getKey().getSimpleName()).append(" ").append(entry.getValue());
+		}
+		return result.toString();
+		
+	}
+	
+}
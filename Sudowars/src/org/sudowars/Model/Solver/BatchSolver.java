@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.Field;
+import org.sudowars.Model.Sudoku.RuleManagement.DependencyManager;
+
+/**
+ * This class solves a batch of fields concurrently. As a {@link BacktrackingSolver} keeps the result 
+ * and the used strategies of the last field, every thread solves its fields with an own solver. The 
+ * threads take the next unsolved field of the batch, so the results do not depend on the number of 
+ * threads. Instances of this class can be used by multiple threads.
+ */
+public class BatchSolver {
+	
+	//number of threads solving the fields
+	private volatile int parallelism;
+	
+	//settings of the solvers of the threads
+	private volatile boolean propagateSingles = true;
+	private volatile boolean trackDirtyGroups = true;
+	
+	/**
+	 * Returns the number of threads solving the fields
+	 * @return the degree of parallelism
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+	
+	/**
+	 * Sets the number of threads solving the fields. By default the number of available processors is used.
+	 * @param parallelism the degree of parallelism
+	 * @throws IllegalArgumentException if the given parallelism is smaller than one
+	 */
+	public void setParallelism(int parallelism) throws IllegalArgumentException {
+		
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("given parallelism has to be greater than zero");
+		}
+		
+		this.parallelism = parallelism;
+		
+	}
+	
+	/**
+	 * Indicates if the solvers propagate naked and hidden singles through a work queue.
+	 * @return <code>true</code> if the singles are propagated, <code>false</code> otherwise
+	 * @see StrategyExecutor#isPropagatingSingles()
+	 */
+	public boolean isPropagatingSingles() {
+		return this.propagateSingles;
+	}
+	
+	/**
+	 * Sets if the solvers propagate naked and hidden singles through a work queue. To rate the fields 
+	 * like the generator, the propagation and the tracking of the changed groups have to be disabled.
+	 * @param propagateSingles <code>true</code> to propagate the singles, <code>false</code> otherwise
+	 * @see StrategyExecutor#setPropagatingSingles(boolean)
+	 */
+	public void setPropagatingSingles(boolean propagateSingles) {
+		this.propagateSingles = propagateSingles;
+	}
+	
+	/**
+	 * Indicates if the solvers execute the strategies on the changed groups only.
+	 * @return <code>true</code> if the changed groups are tracked, <code>false</code> otherwise
+	 * @see StrategyExecutor#isTrackingDirtyGroups()
+	 */
+	public boolean isTrackingDirtyGroups() {
+		return this.trackDirtyGroups;
+	}
+	
+	/**
+	 * Sets if the solvers execute the strategies on the changed groups only.
+	 * @param trackDirtyGroups <code>true</code> to track the changed groups, <code>false</code> otherwise
+	 * @see StrategyExecutor#setTrackingDirtyGroups(boolean)
+	 */
+	public void setTrackingDirtyGroups(boolean trackDirtyGroups) {
+		this.trackDirtyGroups = trackDirtyGroups;
+	}
+	
+	/**
+	 * Solves fields which share the same dependencies, e.g. an imported collection of sudokus of the same size
+	 * @param initialFields the initial fields to solve
+	 * @param dependencyManager the dependency manager of all fields
+	 * @return the results in the order of the given fields
+	 * @throws IllegalArgumentException if no fields or no dependency manager was given
+	 */
+	public List<BatchSolveResult> solve(List<Field<DataCell>> initialFields, DependencyManager dependencyManager) throws IllegalArgumentException {
+		
+		if (initialFields == null) {
+			throw new IllegalArgumentException("given initial fields cannot be null.");
+		}
+		
+		if (dependencyManager == null) {
+			throw new IllegalArgumentException("given DependencyManager cannot be null.");
+		}
+		
+		return this.solve(initialFields, Collections.nCopies(initialFields.size(), dependencyManager));
+		
+	}
+	
+	/**
+	 * Solves fields with their own dependencies. If the current thread is interrupted, the remaining fields 
+	 * are not solved and their results are <code>null</code>.
+	 * @param initialFields the initial fields to solve
+	 * @param dependencyManagers the dependency managers of the fields in the order of the fields
+	 * @return the results in the order of the given fields
+	 * @throws IllegalArgumentException if no fields or dependency managers were given or their number differs
+	 */
+	public List<BatchSolveResult> solve(final List<Field<DataCell>> initialFields, final List<DependencyManager> dependencyManagers) throws IllegalArgumentException {
+		
+		if (initialFields == null) {
+			throw new IllegalArgumentException("given initial fields cannot be null.");
+		}
+		
+		if (dependencyManagers == null || dependencyManagers.size() != initialFields.size()) {
+			throw new IllegalArgumentException("given DependencyManagers have to match the given initial fields.");
+		}
+		
+		final int fieldCount = initialFields.size();
+		final BatchSolveResult[] results = new BatchSolveResult[fieldCount];
+		if (fieldCount == 0) {
+			return Arrays.asList(results);
+		}
+		
+		final AtomicInteger nextField = new AtomicInteger(0);
+		int threadCount = Math.min(this.parallelism, fieldCount);
+		List<Future<Void>> workers = new ArrayList<Future<Void>>(threadCount);
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		
+		try {
+			
+			//every worker solves the next unsolved field with its own solver
+			for (int i = 0; i < threadCount; i++) {
+				workers.add(executor.submit(new Callable<Void>() {
+					public Void call() {
+						BacktrackingSolver solver = createSolver();
+						for (int index = nextField.getAndIncrement(); index < fieldCount && !Thread.currentThread().isInterrupted(); 
+								index = nextField.getAndIncrement()) {
+							results[index] = solveField(solver, index, initialFields.get(index), dependencyManagers.get(index));
+						}
+						return null;
+					}
+				}));
+			}
+			
+			for (Future<Void> worker : workers) {
+				worker.get();
+			}
+			
+		} catch (InterruptedException ex) {
+			
+			//keep the interrupt for the caller, the remaining fields are not solved
+			Thread.currentThread().interrupt();
+			
+		} catch (ExecutionException ex) {
+			
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+			
+		} finally {
+			
+			executor.shutdownNow();
+			
+		}
+		
+		return Arrays.asList(results);
+		
+	}
+	
+	/**
+	 * Creates the solver of a thread
+	 * @return the solver
+	 */
+	private BacktrackingSolver createSolver() {
+		
+		BacktrackingSolver solver = new BacktrackingSolver();
+		solver.setPropagatingSingles(this.propagateSingles);
+		solver.setTrackingDirtyGroups(this.trackDirtyGroups);
+		return solver;
+		
+	}
+	
+	/**
+	 * Solves a single field of the batch
+	 * @param solver the solver of the current thread
+	 * @param index the index of the field in the batch
+	 * @param initialField the initial field to solve
+	 * @param dependencyManager the dependency manager of the field
+	 * @return the result of the field
+	 */
+	private static BatchSolveResult solveField(BacktrackingSolver solver, int index, Field<DataCell> initialField, DependencyManager dependencyManager) {
+		
+		long startTime = System.nanoTime();
+		Field<DataCell> solution = solver.solve(initialField, dependencyManager);
+		long solveTime = System.nanoTime() - startTime;
+		
+		return new BatchSolveResult(index, solution, solveTime, solver.getUsedStrategies());
+		
+	}
+	
+	/**
+	 * Initialises a new instance of the {@link BatchSolver} class
+	 */
+	public BatchSolver() {
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+	}
+	
+}
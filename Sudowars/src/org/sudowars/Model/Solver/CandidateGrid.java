@@ -0,0 +1,370 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Solver;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.sudowars.Model.Sudoku.Field.Cell;
+import org.sudowars.Model.Sudoku.Field.Field;
+import org.sudowars.Model.SudokuUtil.NoteManager;
+
+/**
+ * This class holds the candidates of all {@link Cell}s of a {@link Field} while solving it. The candidates 
+ * of a cell are stored as a bitmask, bit <code>value - 1</code> is set if <code>value</code> is a candidate 
+ * of the cell. The grid is addressed by the cell index, so solver strategies do not need to box values or 
+ * hash cells. It is private to the solver, {@link NoteManager}s are only converted at the API edge.
+ */
+public class CandidateGrid implements Serializable, Cloneable {
+
+	private static final long serialVersionUID = 3541290473361871127L;
+	
+	/**
+	 * The biggest value a candidate can have
+	 */
+	public static final int MAX_VALUE = 32;
+	
+	private int[] masks;
+	
+	//records the changes of the masks while backtracking, null if the changes are not recorded
+	private transient SolverTrail trail;
+	
+	//notified about the changed cells, null if the changes are not tracked
+	private transient CellChangeListener listener;
+	
+	/**
+	 * Initialises a new instance of the {@link CandidateGrid} class without any candidates.
+	 * @param cellCount number of cells of the field
+	 * @throws IllegalArgumentException if the given cell count is smaller than zero
+	 */
+	public CandidateGrid(int cellCount) throws IllegalArgumentException {
+		
+		if (cellCount < 0) {
+			throw new IllegalArgumentException("given cell count can not be smaller than zero");
+		}
+		
+		this.masks = new int[cellCount];
+		
+	}
+	
+	/**
+	 * Returns the mask which holds only the given value.
+	 * @param value the value
+	 * @return the mask of the value
+	 */
+	public static int getValueMask(int value) {
+		return 1 << (value - 1);
+	}
+	
+	/**
+	 * Returns the number of candidates of a mask.
+	 * @param mask the candidate mask
+	 * @return number of set bits of the mask
+	 */
+	public static int countCandidates(int mask) {
+		return Integer.bitCount(mask);
+	}
+	
+	/**
+	 * Returns the smallest candidate of a mask.
+	 * @param mask the candidate mask
+	 * @return the smallest candidate, <code>zero</code> if the mask is empty
+	 */
+	public static int getLowestCandidate(int mask) {
+		return (mask == 0) ? 0 : Integer.numberOfTrailingZeros(mask) + 1;
+	}
+	
+	/**
+	 * Returns the number of cells of the grid.
+	 * @return the number of cells
+	 */
+	public int getCellCount() {
+		return this.masks.length;
+	}
+	
+	/**
+	 * Returns the candidate mask of a cell.
+	 * @param cellIndex index of the cell
+	 * @return the candidate mask of the cell
+	 */
+	public int getMask(int cellIndex) {
+		return this.masks[cellIndex];
+	}
+	
+	/**
+	 * Sets the candidate mask of a cell.
+	 * @param cellIndex index of the cell
+	 * @param mask the new candidate mask
+	 */
+	public void setMask(int cellIndex, int mask) {
+		this.record(cellIndex, mask);
+		this.masks[cellIndex] = mask;
+	}
+	
+	/**
+	 * Returns the number of candidates of a cell.
+	 * @param cellIndex index of the cell
+	 * @return number of candidates of the cell
+	 */
+	public int getCandidateCount(int cellIndex) {
+		return Integer.bitCount(this.masks[cellIndex]);
+	}
+	
+	/**
+	 * Returns the number of candidates of all cells.
+	 * @return number of candidates of the grid
+	 */
+	public int getCandidateCount() {
+		
+		int result = 0;
+		for (int mask : this.masks) {
+			result += Integer.bitCount(mask);
+		}
+		return result;
+		
+	}
+	
+	/**
+	 * Checks if the value is a candidate of the cell.
+	 * @param cellIndex index of the cell
+	 * @param value the value to check
+	 * @return <code>true</code> if the value is a candidate of the cell, <code>false</code> otherwise
+	 */
+	public boolean hasCandidate(int cellIndex, int value) {
+		return (this.masks[cellIndex] & getValueMask(value)) != 0;
+	}
+	
+	/**
+	 * Adds a candidate to the cell.
+	 * @param cellIndex index of the cell
+	 * @param value the value to add
+	 * @return <code>true</code> if the candidate was added, <code>false</code> if the cell already held it
+	 */
+	public boolean addCandidate(int cellIndex, int value) {
+		int oldMask = this.masks[cellIndex];
+		this.record(cellIndex, oldMask | getValueMask(value));
+		this.masks[cellIndex] = oldMask | getValueMask(value);
+		return this.masks[cellIndex] != oldMask;
+	}
+	
+	/**
+	 * Removes a candidate from the cell.
+	 * @param cellIndex index of the cell
+	 * @param value the value to remove
+	 * @return <code>true</code> if the candidate was removed, <code>false</code> if the cell did not hold it
+	 */
+	public boolean removeCandidate(int cellIndex, int value) {
+		int oldMask = this.masks[cellIndex];
+		this.record(cellIndex, oldMask & ~getValueMask(value));
+		this.masks[cellIndex] = oldMask & ~getValueMask(value);
+		return this.masks[cellIndex] != oldMask;
+	}
+	
+	/**
+	 * Removes all candidates of the mask from the cell.
+	 * @param cellIndex index of the cell
+	 * @param mask the candidates to remove
+	 * @return <code>true</code> if at least one candidate was removed, <code>false</code> otherwise
+	 */
+	public boolean removeCandidates(int cellIndex, int mask) {
+		int oldMask = this.masks[cellIndex];
+		this.record(cellIndex, oldMask & ~mask);
+		this.masks[cellIndex] = oldMask & ~mask;
+		return this.masks[cellIndex] != oldMask;
+	}
+	
+	/**
+	 * Removes all candidates of the cell.
+	 * @param cellIndex index of the cell
+	 * @return <code>true</code> if the cell held candidates, <code>false</code> otherwise
+	 */
+	public boolean removeAllCandidates(int cellIndex) {
+		boolean result = this.masks[cellIndex] != 0;
+		this.record(cellIndex, 0);
+		this.masks[cellIndex] = 0;
+		return result;
+	}
+	
+	/**
+	 * Copies all candidates of the given grid into this grid.
+	 * @param source the grid to copy
+	 * @throws IllegalArgumentException if the grids have a different number of cells
+	 */
+	public void copyFrom(CandidateGrid source) throws IllegalArgumentException {
+		
+		if (source.masks.length != this.masks.length) {
+			throw new IllegalArgumentException("given grid has a different number of cells");
+		}
+		
+		for (int i = 0; i < this.masks.length; i++) {
+			this.setMask(i, source.masks[i]);
+		}
+		
+	}
+	
+	/**
+	 * Sets the trail which records the changes of the masks.
+	 * @param trail the trail, <code>null</code> to stop recording
+	 */
+	void setTrail(SolverTrail trail) {
+		this.trail = trail;
+	}
+	
+	/**
+	 * Sets the listener which is notified about every changed mask.
+	 * @param listener the listener, <code>null</code> to stop notifying
+	 */
+	void setListener(CellChangeListener listener) {
+		this.listener = listener;
+	}
+	
+	/**
+	 * Sets the mask of a cell without recording the change, used to roll back the trail.
+	 * @param cellIndex index of the cell
+	 * @param mask the restored mask
+	 */
+	void restoreMask(int cellIndex, int mask) {
+		this.masks[cellIndex] = mask;
+	}
+	
+	/**
+	 * Records the old mask of a cell on the trail and notifies the listener if the mask is going to change.
+	 * @param cellIndex index of the cell
+	 * @param newMask the mask after the change
+	 */
+	private void record(int cellIndex, int newMask) {
+		
+		if (this.masks[cellIndex] == newMask) return;
+		
+		if (this.trail != null) {
+			this.trail.recordCandidates(cellIndex, this.masks[cellIndex]);
+		}
+		if (this.listener != null) {
+			this.listener.cellChanged(cellIndex);
+		}
+		
+	}
+	
+	/**
+	 * Builds a grid from the notes of a {@link NoteManager}.
+	 * @param field the field the notes belong to
+	 * @param noteManager the notes
+	 * @return the grid holding the notes as candidates
+	 * @throws IllegalArgumentException if one of the given arguments is <code>null</code>
+	 */
+	public static CandidateGrid fromNoteManager(Field<Cell> field, NoteManager noteManager) throws IllegalArgumentException {
+		
+		if (field == null || noteManager == null) {
+			throw new IllegalArgumentException("given field or NoteManager is null");
+		}
+		
+		CandidateGrid grid = new CandidateGrid(field.getStructure().getUsedSlotCount());
+		for (Cell cell : field.getCells()) {
+			for (int note : noteManager.getNotes(cell)) {
+				grid.addCandidate(cell.getIndex(), note);
+			}
+		}
+		
+		return grid;
+		
+	}
+	
+	/**
+	 * Builds a {@link NoteManager} holding the candidates of this grid as notes.
+	 * @param field the field the candidates belong to
+	 * @return a new {@link NoteManager}
+	 * @throws IllegalArgumentException if the given field is <code>null</code>
+	 */
+	public NoteManager toNoteManager(Field<Cell> field) throws IllegalArgumentException {
+		
+		if (field == null) {
+			throw new IllegalArgumentException("given field is null");
+		}
+		
+		NoteManager noteManager = new NoteManager();
+		for (Cell cell : field.getCells()) {
+			for (int mask = this.masks[cell.getIndex()]; mask != 0; mask &= mask - 1) {
+				noteManager.addNote(cell, getLowestCandidate(mask));
+			}
+		}
+		
+		return noteManager;
+		
+	}
+	
+	/**
+	 * Returns a copy of the grid
+	 * @return a copy of the grid
+	 */
+	@Override
+	public CandidateGrid clone() {
+		CandidateGrid newGrid = new CandidateGrid(this.masks.length);
+		System.arraycopy(this.masks, 0, newGrid.masks, 0, this.masks.length);
+		return newGrid;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.masks);
+	}
+	
+	/**
+	 * Compares this instance with the specified object and indicates if they are equal.
+	 * @param obj the object to compare this instance with.
+	 * @return <code>true</code> if the specified object is equal to this object, <code>false</code> otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CandidateGrid other = (CandidateGrid) obj;
+		return Arrays.equals(this.masks, other.masks);
+	}
+	
+}
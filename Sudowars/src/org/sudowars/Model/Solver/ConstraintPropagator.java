@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Solver;
+
+import java.util.List;
+
+import org.sudowars.Model.Sudoku.Field.Cell;
+import org.sudowars.Model.Sudoku.RuleManagement.DependencyManager;
+
+/**
+ * This class propagates the constraints of a {@link SolverState} after every change of the candidates. 
+ * 
+ * Every cell whose candidates changed is put on a work queue. A cell with a single candidate left 
+ * is solved right away ("naked single") and its value is removed from the candidates of its peers, 
+ * which queues the peers again. The groups of a changed cell are queued too and searched for a 
+ * value that fits into a single cell only ("hidden single"). So the singles are found in time 
+ * proportional to the changed cells and not by sweeping the whole field. The propagation expects 
+ * a standard ruleset, i.e. every group has to hold all values once.
+ */
+final class ConstraintPropagator {
+	
+	private final SolverState state;
+	private final DependencyManager dependencyManager;
+	
+	//queue of changed cells, each cell is queued once at most
+	private final int[] cellQueue;
+	private final boolean[] cellQueued;
+	private int cellQueueHead;
+	private int cellQueueSize;
+	
+	//queue of groups to search for hidden singles, each group is queued once at most
+	private final int[] groupQueue;
+	private final boolean[] groupQueued;
+	private int groupQueueHead;
+	private int groupQueueSize;
+	
+	/**
+	 * Initialises a new instance of the {@link ConstraintPropagator} class. All unset cells 
+	 * of the state are queued.
+	 * @param state the state to propagate
+	 */
+	ConstraintPropagator(SolverState state) {
+		
+		this.state = state;
+		this.dependencyManager = state.getDependencyManager();
+		
+		int cellCount = state.getCandidates().getCellCount();
+		int groupCount = this.dependencyManager.getDependencyGroups().size();
+		this.cellQueue = new int[cellCount];
+		this.cellQueued = new boolean[cellCount];
+		this.groupQueue = new int[groupCount];
+		this.groupQueued = new boolean[groupCount];
+		
+		for (Cell cell : state.getField().getCells()) {
+			if (!cell.isSet()) this.cellChanged(cell.getIndex());
+		}
+		
+	}
+	
+	/**
+	 * Queues a cell whose candidates changed
+	 * @param cellIndex index of the cell
+	 */
+	void cellChanged(int cellIndex) {
+		
+		if (this.cellQueued[cellIndex]) return;
+		this.cellQueued[cellIndex] = true;
+		this.cellQueue[(this.cellQueueHead + this.cellQueueSize) % this.cellQueue.length] = cellIndex;
+		this.cellQueueSize++;
+		
+	}
+	
+	/**
+	 * Removes all queued cells and groups, used when the state is rolled back to a propagated state
+	 */
+	void clear() {
+		
+		while (this.cellQueueSize > 0) {
+			this.cellQueued[this.pollCell()] = false;
+		}
+		while (this.groupQueueSize > 0) {
+			this.groupQueued[this.pollGroup()] = false;
+		}
+		
+	}
+	
+	/**
+	 * Solves all naked and hidden singles until the queues are empty
+	 * @param nakedSingleStrategy the strategy naked singles are accounted to
+	 * @param hiddenSingleStrategy the strategy hidden singles are accounted to
+	 * @param usedStrategies the list to add the strategy of every solved cell to
+	 * @return <code>true</code> if at least one cell was solved, <code>false</code> otherwise
+	 * @throws NotSolvableException if a cell has no candidate left or a value does not fit into its group anymore
+	 */
+	boolean propagate(SolverStrategy nakedSingleStrategy, SolverStrategy hiddenSingleStrategy, List<SolverStrategy> usedStrategies) throws NotSolvableException {
+		
+		boolean solvedCell = false;
+		CandidateGrid candidates = this.state.getCandidates();
+		
+		try {
+			
+			while (this.cellQueueSize > 0 || this.groupQueueSize > 0) {
+				
+				//handle the changed cells first, they are cheaper than the groups
+				if (this.cellQueueSize > 0) {
+					
+					int cellIndex = this.pollCell();
+					this.cellQueued[cellIndex] = false;
+					if (this.state.getField().getCell(cellIndex).isSet()) continue;
+					
+					int mask = candidates.getMask(cellIndex);
+					if (mask == 0) throw new NotSolvableException();
+					
+					for (int groupId : this.dependencyManager.getGroupIdsOfCell(cellIndex)) {
+						this.groupChanged(groupId);
+					}
+					
+					if (CandidateGrid.countCandidates(mask) == 1) {
+						this.solveCell(cellIndex, CandidateGrid.getLowestCandidate(mask));
+						usedStrategies.add(nakedSingleStrategy);
+						solvedCell = true;
+					}
+					
+				} else {
+					
+					int groupId = this.pollGroup();
+					this.groupQueued[groupId] = false;
+					
+					//collect the values which fit into one cell only and the values which are set
+					int[] cells = this.dependencyManager.getCellsOfGroup(groupId);
+					int setValues = 0;
+					int once = 0;
+					int twice = 0;
+					for (int cellIndex : cells) {
+						Cell cell = this.state.getField().getCell(cellIndex);
+						if (cell.isSet()) {
+							setValues |= CandidateGrid.getValueMask(cell.getValue());
+						} else {
+							int mask = candidates.getMask(cellIndex);
+							twice |= once & mask;
+							once |= mask;
+						}
+					}
+					
+					//every value has to be set or possible in the group
+					int allValues = (cells.length == 0) ? 0 : (-1 >>> (32 - cells.length));
+					if ((setValues | once) != allValues) throw new NotSolvableException();
+					
+					//solve the first hidden single, the solved cell queues the group again
+					int hiddenSingles = once & ~twice & ~setValues;
+					if (hiddenSingles != 0) {
+						int value = CandidateGrid.getLowestCandidate(hiddenSingles);
+						for (int cellIndex : cells) {
+							if (!this.state.getField().getCell(cellIndex).isSet() && candidates.hasCandidate(cellIndex, value)) {
+								this.solveCell(cellIndex, value);
+								usedStrategies.add(hiddenSingleStrategy);
+								solvedCell = true;
+								break;
+							}
+						}
+					}
+					
+				}
+				
+			}
+			
+		} catch (NotSolvableException ex) {
+			
+			//the state is rolled back or dropped, the queued changes are not needed anymore
+			this.clear();
+			throw ex;
+			
+		}
+		
+		return solvedCell;
+		
+	}
+	
+	/**
+	 * Sets the value of a cell and removes it from the candidates of the peers
+	 * @param cellIndex index of the solved cell
+	 * @param value the solution of the cell
+	 */
+	private void solveCell(int cellIndex, int value) {
+		
+		CandidateGrid candidates = this.state.getCandidates();
+		this.state.setCellValue(cellIndex, value);
+		candidates.removeAllCandidates(cellIndex);
+		
+		for (int peer : this.dependencyManager.getPeersOfCell(cellIndex)) {
+			candidates.removeCandidate(peer, value);
+		}
+		
+		//the groups of the cell have a new set value
+		for (int groupId : this.dependencyManager.getGroupIdsOfCell(cellIndex)) {
+			this.groupChanged(groupId);
+		}
+		
+	}
+	
+	/**
+	 * Queues a group to search for hidden singles
+	 * @param groupId id of the group
+	 */
+	private void groupChanged(int groupId) {
+		
+		if (this.groupQueued[groupId]) return;
+		this.groupQueued[groupId] = true;
+		this.groupQueue[(this.groupQueueHead + this.groupQueueSize) % this.groupQueue.length] = groupId;
+		this.groupQueueSize++;
+		
+	}
+	
+	/**
+	 * Removes the first cell of the queue
+	 * @return index of the cell
+	 */
+	private int pollCell() {
+		
+		int cellIndex = this.cellQueue[this.cellQueueHead];
+		this.cellQueueHead = (this.cellQueueHead + 1) % this.cellQueue.length;
+		this.cellQueueSize--;
+		return cellIndex;
+		
+	}
+	
+	/**
+	 * Removes the first group of the queue
+	 * @return id of the group
+	 */
+	private int pollGroup() {
+		
+		int groupId = this.groupQueue[this.groupQueueHead];
+		this.groupQueueHead = (this.groupQueueHead + 1) % this.groupQueue.length;
+		this.groupQueueSize--;
+		return groupId;
+		
+	}
+	
+}
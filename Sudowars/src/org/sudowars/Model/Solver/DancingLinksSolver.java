@@ -0,0 +1,782 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.sudowars.Model.Sudoku.Field.Cell;
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.DataCellBuilder;
+import org.sudowars.Model.Sudoku.Field.Field;
+import org.sudowars.Model.Sudoku.Field.FieldBuilder;
+import org.sudowars.Model.Sudoku.Field.FieldStructure;
+import org.sudowars.Model.Sudoku.RuleManagement.DependencyGroup;
+import org.sudowars.Model.Sudoku.RuleManagement.DependencyManager;
+import org.sudowars.Model.Sudoku.RuleManagement.NoDuplicatesRule;
+
+/**
+ * The class defines the functionality to solve a {@link Field} by using Knuth's 
+ * "Algorithm X" with dancing links. 
+ * 
+ * The {@link Field} is translated into an exact cover matrix: every cell has to get exactly one 
+ * value and every value can be used at most once in a {@link DependencyGroup} with a 
+ * {@link NoDuplicatesRule}. If such a group holds as much cells as values, every value has to be 
+ * used exactly once. The search stops as soon as a second solution was found. 
+ * 
+ * The matrix is built once for a {@link DependencyManager} and restored after every search, so 
+ * solving many fields with the same {@link DependencyManager} does not allocate new nodes. 
+ * Therefore an instance of this class must not be used by multiple threads at the same time.
+ * 
+ * Clues of a solved {@link Field} can be dug one after the other, see {@link #startDigging(Field, DependencyManager, int[])}. 
+ * The rows of the remaining clues stay selected between the checks, so only the dug clue is deselected.
+ */
+public class DancingLinksSolver implements Solver {
+	
+	private static final long serialVersionUID = -2931774580315522036L;
+	
+	//index of the root header, the column headers follow the root
+	private static final int ROOT = 0;
+	
+	//dependency manager and structure the matrix was built for
+	private transient DependencyManager matrixDependencyManager;
+	private transient FieldStructure matrixStructure;
+	
+	//links of the nodes, headers are nodes too
+	private transient int[] left;
+	private transient int[] right;
+	private transient int[] up;
+	private transient int[] down;
+	private transient int[] column;
+	private transient int[] nodeRow;
+	
+	//number of nodes of a column and whether the column is covered
+	private transient int[] columnSize;
+	private transient boolean[] columnCovered;
+	
+	//cell and value of a row, first node of a row and the row of a cell value
+	private transient int[] rowCell;
+	private transient int[] rowValue;
+	private transient int[] rowNode;
+	private transient int[][] cellValueRow;
+	
+	//working variables of the search
+	private transient int[] selectedRows;
+	private transient int[] solutionValues;
+	private transient int solutionCount;
+	private transient int solutionLimit;
+	private transient boolean recordSolution;
+	
+	//rows of the clues while digging: the permanent clues, the clues to dig in reverse order and the kept clues
+	private transient int[] digRows;
+	private transient int digRowCount;
+	private transient int digStart;
+	private transient int digEnd;
+	private transient boolean digging;
+	
+	/**
+	 * Initialises a new instance of the {@link DancingLinksSolver} class
+	 */
+	public DancingLinksSolver() {
+		super();
+	}
+	
+	/**
+	 * Solves a {@link Field} of {@link DataCell}s and returns the fully filled solution-{@link Field}
+	 *
+	 * @param initialField The initial field to solve
+	 * @param dependencyManager The dependency manager of the field
+	 *
+	 * @return the fully filled solution-{@link Field}, <code>null</code> if given field is not 
+	 * 			solvable or has multiple solutions
+	 *
+	 * @throws IllegalArgumentException if no field or no dependencyManager was given
+	 * @throws IllegalStateException if the solver is digging clues
+	 */
+	public Field<DataCell> solve(Field<DataCell> initialField, DependencyManager dependencyManager) throws IllegalArgumentException {
+		
+		if (initialField == null) {
+			throw new IllegalArgumentException("given initialfield cannot be null.");
+		}
+		
+		if (dependencyManager == null) {
+			throw new IllegalArgumentException("given DependencyManager cannot be null.");
+		}
+		
+		//search a second solution to ensure the found one is unique
+		if (this.search(initialField, dependencyManager, 2, true) != 1) {
+			return null;
+		}
+		
+		//fill all empty cells of the solution field with the found solution
+		Field<DataCell> solutionField = initialField.clone();
+		for (DataCell cell : solutionField.getCells()) {
+			if (!cell.isSet()) {
+				cell.setValue(this.solutionValues[cell.getIndex()]);
+			}
+		}
+		
+		return solutionField;
+		
+	}
+	
+	/**
+	 * Counts the solutions of a {@link Field} of {@link DataCell}s. The search stops as soon as 
+	 * the given limit is reached, so a limit of two is enough to check if the solution is unique. 
+	 * No solution-{@link Field} is built.
+	 *
+	 * @param initialField The initial field to check
+	 * @param dependencyManager The dependency manager of the field
+	 * @param limit the number of solutions to stop the search at
+	 *
+	 * @return the number of solutions, never bigger than the given limit
+	 *
+	 * @throws IllegalArgumentException if no field or no dependencyManager was given or the limit is smaller than one
+	 * @throws IllegalStateException if the solver is digging clues
+	 */
+	public int countSolutions(Field<DataCell> initialField, DependencyManager dependencyManager, int limit) throws IllegalArgumentException {
+		
+		if (initialField == null) {
+			throw new IllegalArgumentException("given initialfield cannot be null.");
+		}
+		
+		if (dependencyManager == null) {
+			throw new IllegalArgumentException("given DependencyManager cannot be null.");
+		}
+		
+		if (limit < 1) {
+			throw new IllegalArgumentException("given limit has to be greater than zero.");
+		}
+		
+		return this.search(initialField, dependencyManager, limit, false);
+		
+	}
+	
+	/**
+	 * Starts digging clues out of the given fully filled {@link Field}. All cells are clues at first, 
+	 * the cells of the dig order are dug by {@link #digNextClue()} in the given order. The matrix 
+	 * stays in use until {@link #stopDigging()} is called, in between the solver can not solve fields.
+	 *
+	 * @param solutionField the fully filled field to dig the clues of
+	 * @param dependencyManager The dependency manager of the field
+	 * @param digOrder the indices of the cells to dig in the order to dig them, all other cells stay clues
+	 *
+	 * @throws IllegalArgumentException if no field, no dependencyManager or no dig order was given, the field 
+	 * 			is not a valid solution or the dig order contains an illegal or repeated index
+	 */
+	public void startDigging(Field<DataCell> solutionField, DependencyManager dependencyManager, int[] digOrder) throws IllegalArgumentException {
+		
+		if (solutionField == null) {
+			throw new IllegalArgumentException("given solutionField cannot be null.");
+		}
+		
+		if (dependencyManager == null) {
+			throw new IllegalArgumentException("given DependencyManager cannot be null.");
+		}
+		
+		if (digOrder == null) {
+			throw new IllegalArgumentException("given dig order cannot be null.");
+		}
+		
+		if (!solutionField.isFilled()) {
+			throw new IllegalArgumentException("given solutionField is not filled.");
+		}
+		
+		this.stopDigging();
+		
+		//build the matrix if the dependencies changed since the last call
+		if (this.matrixDependencyManager != dependencyManager || this.matrixStructure != solutionField.getStructure()) {
+			this.buildMatrix(solutionField.getStructure(), dependencyManager);
+		}
+		
+		int cellCount = this.cellValueRow.length;
+		boolean[] dug = new boolean[cellCount];
+		for (int cellIndex : digOrder) {
+			if (cellIndex < 0 || cellIndex >= cellCount || dug[cellIndex]) {
+				throw new IllegalArgumentException("given dig order contains an illegal index.");
+			}
+			dug[cellIndex] = true;
+		}
+		
+		//the permanent clues are selected first, the first cell to dig is selected last
+		this.digRows = new int[cellCount];
+		this.digRowCount = 0;
+		this.digging = true;
+		for (int cellIndex = 0; cellIndex < cellCount; cellIndex++) {
+			if (!dug[cellIndex]) {
+				this.selectDigRow(solutionField.getCell(cellIndex));
+			}
+		}
+		this.digStart = this.digRowCount;
+		for (int i = digOrder.length - 1; i >= 0; i--) {
+			this.selectDigRow(solutionField.getCell(digOrder[i]));
+		}
+		this.digEnd = this.digRowCount;
+		
+	}
+	
+	/**
+	 * Selects the row of the given clue while digging
+	 * @param cell the clue
+	 * @throws IllegalArgumentException if the value of the clue is not allowed or collides with another clue
+	 */
+	private void selectDigRow(DataCell cell) throws IllegalArgumentException {
+		
+		int row = this.getRow(cell.getIndex(), cell.getValue());
+		if (row < 0 || !this.isRowSelectable(row)) {
+			this.stopDigging();
+			throw new IllegalArgumentException("given solutionField is not a valid solution.");
+		}
+		
+		this.selectRow(row);
+		this.digRows[this.digRowCount++] = row;
+		
+	}
+	
+	/**
+	 * Returns the index of the cell {@link #digNextClue()} tries to dig
+	 * @return the index of the next cell to dig, <code>-1</code> if all cells of the dig order were tried
+	 */
+	public int getNextCellToDig() {
+		return (this.digging && this.digEnd > this.digStart) ? this.rowCell[this.digRows[this.digEnd - 1]] : -1;
+	}
+	
+	/**
+	 * Returns the number of clues left while digging
+	 * @return the number of clues left, <code>0</code> if the solver is not digging
+	 */
+	public int getClueCount() {
+		return this.digging ? this.digRowCount : 0;
+	}
+	
+	/**
+	 * Digs the next clue of the dig order if the remaining clues still have a unique solution. As the clues 
+	 * had a unique solution before, this is the case if no solution with another value of the dug cell exists. 
+	 * A clue which can not be dug stays a clue, as digging other clues can not make it removable.
+	 *
+	 * @return <code>true</code> if the clue was dug, <code>false</code> if it is kept
+	 *
+	 * @throws IllegalStateException if the solver is not digging or all cells of the dig order were tried
+	 */
+	public boolean digNextClue() throws IllegalStateException {
+		
+		if (this.getNextCellToDig() < 0) {
+			throw new IllegalStateException("no clue left to dig.");
+		}
+		
+		//deselect the kept clues selected after the clue to dig, remove the clue and select them again
+		int digRow = this.digRows[--this.digEnd];
+		for (int i = this.digRowCount - 1; i >= this.digEnd; i--) {
+			this.deselectRow(this.digRows[i]);
+		}
+		System.arraycopy(this.digRows, this.digEnd + 1, this.digRows, this.digEnd, this.digRowCount - this.digEnd - 1);
+		this.digRowCount--;
+		for (int i = this.digEnd; i < this.digRowCount; i++) {
+			this.selectRow(this.digRows[i]);
+		}
+		
+		if (this.hasOtherSolution(digRow)) {
+			this.selectRow(digRow);
+			this.digRows[this.digRowCount++] = digRow;
+			return false;
+		}
+		
+		return true;
+		
+	}
+	
+	/**
+	 * Checks if the selected clues have a solution in which the cell of the given row has another value
+	 * @param excludedRow the row of the dug clue
+	 * @return <code>true</code> if such a solution exists, <code>false</code> otherwise
+	 */
+	private boolean hasOtherSolution(int excludedRow) {
+		
+		this.solutionCount = 0;
+		this.solutionLimit = 1;
+		this.recordSolution = false;
+		
+		//the first node of a row belongs to the column of its cell
+		int cellColumn = this.column[this.rowNode[excludedRow]];
+		this.cover(cellColumn);
+		
+		for (int node = this.down[cellColumn]; node != cellColumn && this.solutionCount == 0; node = this.down[node]) {
+			
+			if (this.nodeRow[node] == excludedRow) continue;
+			
+			this.selectedRows[this.digRowCount] = this.nodeRow[node];
+			for (int j = this.right[node]; j != node; j = this.right[j]) {
+				this.cover(this.column[j]);
+			}
+			
+			this.search(this.digRowCount + 1);
+			
+			for (int j = this.left[node]; j != node; j = this.left[j]) {
+				this.uncover(this.column[j]);
+			}
+			
+		}
+		
+		this.uncover(cellColumn);
+		
+		return this.solutionCount > 0;
+		
+	}
+	
+	/**
+	 * Stops digging and restores the matrix, so the solver can solve fields again
+	 */
+	public void stopDigging() {
+		
+		if (!this.digging) return;
+		
+		for (int i = this.digRowCount - 1; i >= 0; i--) {
+			this.deselectRow(this.digRows[i]);
+		}
+		
+		this.digRows = null;
+		this.digRowCount = 0;
+		this.digging = false;
+		
+	}
+	
+	/**
+	 * Returns the row of the given cell value
+	 * @param cellIndex the index of the cell
+	 * @param value the value of the cell
+	 * @return the row of the cell value, <code>-1</code> if the value is not allowed
+	 */
+	private int getRow(int cellIndex, int value) {
+		return (value < this.cellValueRow[cellIndex].length) ? this.cellValueRow[cellIndex][value] : -1;
+	}
+	
+	/**
+	 * Searches solutions of the given field until the limit is reached.
+	 * @param initialField the field to solve
+	 * @param dependencyManager the dependency manager of the field
+	 * @param limit the number of solutions to stop the search at
+	 * @param recordSolution whether the values of the first found solution are saved in the solution values
+	 * @return the number of found solutions, never bigger than the limit
+	 */
+	private int search(Field<DataCell> initialField, DependencyManager dependencyManager, int limit, boolean recordSolution) {
+		
+		if (this.digging) {
+			throw new IllegalStateException("solver is digging clues.");
+		}
+		
+		//build the matrix if the dependencies changed since the last call
+		if (this.matrixDependencyManager != dependencyManager || this.matrixStructure != initialField.getStructure()) {
+			this.buildMatrix(initialField.getStructure(), dependencyManager);
+		}
+		
+		this.solutionCount = 0;
+		this.solutionLimit = limit;
+		this.recordSolution = recordSolution;
+		
+		//select the rows of all set cells, stop if a value is not allowed or collides with another one
+		int selectedGivens = 0;
+		boolean consistent = true;
+		for (DataCell cell : initialField.getCells()) {
+			if (!cell.isSet()) continue;
+			
+			int row = this.getRow(cell.getIndex(), cell.getValue());
+			if (row < 0 || !this.isRowSelectable(row)) {
+				consistent = false;
+				break;
+			}
+			
+			this.selectRow(row);
+			this.selectedRows[selectedGivens++] = row;
+		}
+		
+		if (consistent) {
+			this.search(selectedGivens);
+		}
+		
+		//restore the matrix for the next call
+		for (int i = selectedGivens - 1; i >= 0; i--) {
+			this.deselectRow(this.selectedRows[i]);
+		}
+		
+		return this.solutionCount;
+		
+	}
+	
+	/**
+	 * Searches recursively for solutions of the remaining matrix
+	 * @param depth number of rows selected so far
+	 */
+	private void search(int depth) {
+		
+		//all primary columns are covered, the selected rows are a solution
+		if (this.right[ROOT] == ROOT) {
+			
+			if (this.recordSolution && this.solutionCount == 0) {
+				for (int i = 0; i < depth; i++) {
+					this.solutionValues[this.rowCell[this.selectedRows[i]]] = this.rowValue[this.selectedRows[i]];
+				}
+			}
+			this.solutionCount++;
+			return;
+			
+		}
+		
+		//choose the column with the fewest rows left
+		int chosenColumn = this.right[ROOT];
+		for (int c = this.right[chosenColumn]; c != ROOT; c = this.right[c]) {
+			if (this.columnSize[c] < this.columnSize[chosenColumn]) {
+				chosenColumn = c;
+			}
+		}
+		
+		//a column without any rows can not be covered anymore
+		if (this.columnSize[chosenColumn] == 0) {
+			return;
+		}
+		
+		this.cover(chosenColumn);
+		
+		for (int node = this.down[chosenColumn]; node != chosenColumn && this.solutionCount < this.solutionLimit; node = this.down[node]) {
+			
+			this.selectedRows[depth] = this.nodeRow[node];
+			for (int j = this.right[node]; j != node; j = this.right[j]) {
+				this.cover(this.column[j]);
+			}
+			
+			this.search(depth + 1);
+			
+			for (int j = this.left[node]; j != node; j = this.left[j]) {
+				this.uncover(this.column[j]);
+			}
+			
+		}
+		
+		this.uncover(chosenColumn);
+		
+	}
+	
+	/**
+	 * Checks if no column of the row is covered
+	 * @param row the row to check
+	 * @return <code>true</code> if the row can be selected, <code>false</code> otherwise
+	 */
+	private boolean isRowSelectable(int row) {
+		
+		int node = this.rowNode[row];
+		do {
+			if (this.columnCovered[this.column[node]]) return false;
+			node = this.right[node];
+		} while (node != this.rowNode[row]);
+		
+		return true;
+		
+	}
+	
+	/**
+	 * Covers all columns of the given row
+	 * @param row the row to select
+	 */
+	private void selectRow(int row) {
+		
+		int node = this.rowNode[row];
+		do {
+			this.cover(this.column[node]);
+			node = this.right[node];
+		} while (node != this.rowNode[row]);
+		
+	}
+	
+	/**
+	 * Uncovers all columns of the given row in reverse order
+	 * @param row the row to deselect
+	 */
+	private void deselectRow(int row) {
+		
+		int node = this.left[this.rowNode[row]];
+		do {
+			this.uncover(this.column[node]);
+			node = this.left[node];
+		} while (node != this.left[this.rowNode[row]]);
+		
+	}
+	
+	/**
+	 * Removes the column from the header list and all rows of the column from the other columns
+	 * @param c the column to cover
+	 */
+	private void cover(int c) {
+		
+		this.columnCovered[c] = true;
+		this.right[this.left[c]] = this.right[c];
+		this.left[this.right[c]] = this.left[c];
+		
+		for (int i = this.down[c]; i != c; i = this.down[i]) {
+			for (int j = this.right[i]; j != i; j = this.right[j]) {
+				this.down[this.up[j]] = this.down[j];
+				this.up[this.down[j]] = this.up[j];
+				this.columnSize[this.column[j]]--;
+			}
+		}
+		
+	}
+	
+	/**
+	 * Restores a column removed by {@link #cover(int)}
+	 * @param c the column to uncover
+	 */
+	private void uncover(int c) {
+		
+		for (int i = this.up[c]; i != c; i = this.up[i]) {
+			for (int j = this.left[i]; j != i; j = this.left[j]) {
+				this.columnSize[this.column[j]]++;
+				this.down[this.up[j]] = j;
+				this.up[this.down[j]] = j;
+			}
+		}
+		
+		this.right[this.left[c]] = c;
+		this.left[this.right[c]] = c;
+		this.columnCovered[c] = false;
+		
+	}
+	
+	/**
+	 * Builds the exact cover matrix of the given structure and dependencies
+	 * @param structure the structure of the field
+	 * @param dependencyManager the dependencies of the field
+	 */
+	private void buildMatrix(FieldStructure structure, DependencyManager dependencyManager) {
+		
+		//the rules return all allowed values of a group when applied to an empty field
+		Field<Cell> emptyField = new FieldBuilder<DataCell>().build(structure, new DataCellBuilder()).convert();
+		List<DependencyGroup> groups = dependencyManager.getDependencyGroups();
+		int cellCount = emptyField.getCells().size();
+		
+		//collect the allowed values of every cell and the groups without duplicates of every cell
+		int[] cellMasks = new int[cellCount];
+		Arrays.fill(cellMasks, -1);
+		List<List<Integer>> cellGroups = new ArrayList<List<Integer>>(cellCount);
+		for (int i = 0; i < cellCount; i++) {
+			cellGroups.add(new ArrayList<Integer>());
+		}
+		
+		int maxValue = 0;
+		int[] groupColumn = new int[groups.size()];
+		int[] groupMasks = new int[groups.size()];
+		boolean[] primaryGroup = new boolean[groups.size()];
+		int columnCount = cellCount;
+		
+		//columns of the cells come first, then the columns of the groups without duplicates
+		for (int g = 0; g < groups.size(); g++) {
+			
+			DependencyGroup group = groups.get(g);
+			List<Cell> cells = group.getCells(emptyField);
+			groupColumn[g] = -1;
+			if (cells.isEmpty()) continue;
+			
+			groupMasks[g] = group.getRule().getValidMask(emptyField, group, cells.get(0));
+			maxValue = Math.max(maxValue, maxValue(groupMasks[g]));
+			
+			for (Cell cell : cells) {
+				cellMasks[cell.getIndex()] &= groupMasks[g];
+				if (group.getRule() instanceof NoDuplicatesRule) {
+					cellGroups.get(cell.getIndex()).add(g);
+				}
+			}
+			
+			//a value has to be used exactly once if the group holds as much cells as values
+			if (group.getRule() instanceof NoDuplicatesRule) {
+				groupColumn[g] = columnCount;
+				columnCount += maxValue(groupMasks[g]);
+				primaryGroup[g] = (cells.size() == CandidateGrid.countCandidates(groupMasks[g]));
+			}
+			
+		}
+		
+		//cells which are not part of any group can hold every value
+		int allValues = (maxValue == 0) ? 0 : (-1 >>> (32 - maxValue));
+		
+		//count the rows and nodes of the matrix
+		int rowCount = 0;
+		int nodeCount = columnCount + 1;
+		for (int cell = 0; cell < cellCount; cell++) {
+			cellMasks[cell] &= allValues;
+			int rowsOfCell = CandidateGrid.countCandidates(cellMasks[cell]);
+			rowCount += rowsOfCell;
+			nodeCount += rowsOfCell * (1 + cellGroups.get(cell).size());
+		}
+		
+		//initiate the arrays, the headers are linked to themselves
+		this.left = new int[nodeCount];
+		this.right = new int[nodeCount];
+		this.up = new int[nodeCount];
+		this.down = new int[nodeCount];
+		this.column = new int[nodeCount];
+		this.nodeRow = new int[nodeCount];
+		this.columnSize = new int[columnCount + 1];
+		this.columnCovered = new boolean[columnCount + 1];
+		this.rowCell = new int[rowCount];
+		this.rowValue = new int[rowCount];
+		this.rowNode = new int[rowCount];
+		this.cellValueRow = new int[cellCount][maxValue + 1];
+		this.selectedRows = new int[cellCount];
+		this.solutionValues = new int[cellCount];
+		
+		for (int c = 0; c <= columnCount; c++) {
+			this.left[c] = c;
+			this.right[c] = c;
+			this.up[c] = c;
+			this.down[c] = c;
+			this.column[c] = c;
+		}
+		
+		//only primary columns are linked to the root, the others are just restricting the rows
+		int lastPrimaryColumn = ROOT;
+		for (int c = 1; c <= columnCount; c++) {
+			if (c <= cellCount || this.isPrimaryGroupColumn(c - 1, groupColumn, groupMasks, primaryGroup)) {
+				this.left[c] = lastPrimaryColumn;
+				this.right[lastPrimaryColumn] = c;
+				lastPrimaryColumn = c;
+			}
+		}
+		this.left[ROOT] = lastPrimaryColumn;
+		this.right[lastPrimaryColumn] = ROOT;
+		
+		//add a row for every allowed value of every cell
+		int row = 0;
+		int node = columnCount + 1;
+		for (int cell = 0; cell < cellCount; cell++) {
+			
+			Arrays.fill(this.cellValueRow[cell], -1);
+			
+			for (int remaining = cellMasks[cell]; remaining != 0; remaining &= remaining - 1) {
+				
+				int value = CandidateGrid.getLowestCandidate(remaining);
+				this.rowCell[row] = cell;
+				this.rowValue[row] = value;
+				this.rowNode[row] = node;
+				this.cellValueRow[cell][value] = row;
+				
+				//header indices are shifted by one because of the root
+				node = this.appendNode(node, row, 1 + cell);
+				for (int g : cellGroups.get(cell)) {
+					node = this.appendNode(node, row, 1 + groupColumn[g] + value - 1);
+				}
+				
+				row++;
+				
+			}
+			
+		}
+		
+		this.matrixDependencyManager = dependencyManager;
+		this.matrixStructure = structure;
+		
+	}
+	
+	/**
+	 * Checks if the given column belongs to a value of a group which has to be used exactly once
+	 * @param c the column without the offset of the root
+	 * @param groupColumn first column of every group, <code>-1</code> if the group has no columns
+	 * @param groupMasks allowed values of every group
+	 * @param primaryGroup whether the values of a group have to be used exactly once
+	 * @return <code>true</code> if the column is a primary column, <code>false</code> otherwise
+	 */
+	private boolean isPrimaryGroupColumn(int c, int[] groupColumn, int[] groupMasks, boolean[] primaryGroup) {
+		
+		for (int g = 0; g < groupColumn.length; g++) {
+			if (groupColumn[g] < 0 || c < groupColumn[g] || c >= groupColumn[g] + maxValue(groupMasks[g])) continue;
+			return primaryGroup[g] && (groupMasks[g] & CandidateGrid.getValueMask(c - groupColumn[g] + 1)) != 0;
+		}
+		
+		return false;
+		
+	}
+	
+	/**
+	 * Appends a node to the given row and column
+	 * @param node index of the new node
+	 * @param row the row of the node
+	 * @param c the column of the node
+	 * @return the index of the next free node
+	 */
+	private int appendNode(int node, int row, int c) {
+		
+		//link node into the column
+		this.column[node] = c;
+		this.nodeRow[node] = row;
+		this.up[node] = this.up[c];
+		this.down[node] = c;
+		this.down[this.up[c]] = node;
+		this.up[c] = node;
+		this.columnSize[c]++;
+		
+		//link node into the row
+		int first = this.rowNode[row];
+		if (node == first) {
+			this.left[node] = node;
+			this.right[node] = node;
+		} else {
+			this.left[node] = this.left[first];
+			this.right[node] = first;
+			this.right[this.left[first]] = node;
+			this.left[first] = node;
+		}
+		
+		return node + 1;
+		
+	}
+	
+	/**
+	 * Returns the biggest value of a mask
+	 * @param mask the value mask
+	 * @return the biggest value, <code>zero</code> if the mask is empty
+	 */
+	private static int maxValue(int mask) {
+		return 32 - Integer.numberOfLeadingZeros(mask);
+	}
+	
+}
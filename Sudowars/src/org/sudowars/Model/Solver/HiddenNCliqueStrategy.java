@@ -44,7 +44,7 @@
  ******************************************************************************/
 package org.sudowars.Model.Solver;
 
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -63,6 +63,36 @@ import org.sudowars.Model.Sudoku.RuleManagement.RuleApplier.StandardRulesetFacto
 public class HiddenNCliqueStrategy extends SolverStrategy {
 	
 	private static final long serialVersionUID = 6417133206019328525L;
+	
+	/**
+	 * The default maximum size of the searched cliques
+	 */
+	public static final int DEFAULT_MAX_CLIQUE_SIZE = 4;
+	
+	private int maxCliqueSize = DEFAULT_MAX_CLIQUE_SIZE;
+	
+	/**
+	 * Returns the maximum size of the searched cliques
+	 * @return the maximum number of candidates of a clique
+	 */
+	public int getMaxCliqueSize() {
+		return this.maxCliqueSize;
+	}
+	
+	/**
+	 * Sets the maximum size of the searched cliques. Bigger cliques are found as naked clique of the remaining cells.
+	 * @param maxCliqueSize the maximum number of candidates of a clique
+	 * @throws IllegalArgumentException if the given size is smaller than two
+	 */
+	public void setMaxCliqueSize(int maxCliqueSize) throws IllegalArgumentException {
+		
+		if (maxCliqueSize < 2) {
+			throw new IllegalArgumentException("given clique size has to be at least two");
+		}
+		
+		this.maxCliqueSize = maxCliqueSize;
+		
+	}
 
 	/**
 	 * Executes the strategy on the current state
@@ -77,6 +107,29 @@ public class HiddenNCliqueStrategy extends SolverStrategy {
 			throw new IllegalArgumentException("given SolverState cannot be null.");
 		}
 		
+		return this.executeStrategy(currentState, getAllGroupIds(currentState));
+		
+	}
+	
+	/**
+	 * Executes the strategy on the given groups of the current state
+	 * @param currentState The current solution state
+	 * @param groupIds The ids of the groups to execute the strategy on
+	 * @return List of SolveSteps calculated by the strategy
+	 * @throws NotSolvableException if the strategy detects that the current field is not solvable
+	 * @throws IllegalArgumentException if the given state or the given group ids are <code>null</code>
+	 */
+	@Override
+	public List<SolveStep> executeStrategy(SolverState currentState, BitSet groupIds) throws IllegalArgumentException {
+		
+		if (currentState == null) {
+			throw new IllegalArgumentException("given SolverState cannot be null.");
+		}
+		
+		if (groupIds == null) {
+			throw new IllegalArgumentException("given group ids cannot be null.");
+		}
+		
 		//strategy needs standard ruleset to solve cells or rather reduce candidates
 		if (!StandardRulesetFactory.getInstance().isStandardRuleset(currentState.getDependencyManager())) {
 			return new LinkedList<SolveStep>();
@@ -87,59 +140,33 @@ public class HiddenNCliqueStrategy extends SolverStrategy {
 		Boolean notesChanged = false;
 		
 		//iterate through the dependency groups and find cells that hold the same group of candidates				
-		for (DependencyGroup dependencyGroup : currentState.getDependencyManager().getDependencyGroups()) {
+		for (int groupId = groupIds.nextSetBit(0); groupId >= 0; groupId = groupIds.nextSetBit(groupId + 1)) {
+			DependencyGroup dependencyGroup = currentState.getDependencyManager().getDependencyGroup(groupId);
 		
 			//get all cells of the group with a candidate list
 			List<Cell> cellList = this.getUnsetCells(currentState, dependencyGroup);
 			
-			//get all used candidates within the group
-			List<Integer> usedCandidates = this.getCandidateList(dependencyGroup, currentState);
-			
-			//initiate position list for all candidates
-			HashMap<Integer, List<Integer>> candidatePositions = new HashMap<Integer, List<Integer>>();
-			for (Integer candidate : usedCandidates) candidatePositions.put(candidate, new LinkedList<Integer>());
+			//initiate position masks for all candidates, bit i marks the i-th cell of the cell list and 
+			//the candidate of the mask at index i is i+1
+			int[] candidatePositions = new int[CandidateGrid.MAX_VALUE];
 			
 			//iterate through all cells and save candidates' positions
 			for (int position = 0; position < cellList.size(); position++) {
-				for (Integer candidate : currentState.getNoteManager().getNotes(cellList.get(position))) {
-					candidatePositions.get(candidate).add(position);
+				int cellMask = currentState.getCandidates().getMask(cellList.get(position).getIndex());
+				for (int remaining = cellMask; remaining != 0; remaining &= remaining - 1) {
+					candidatePositions[Integer.numberOfTrailingZeros(remaining)] |= 1 << position;
 				}
 			}
 			
-			//generate all subsets of the used positions
-			List<List<Integer>> subsets = this.getSubsets(cellList.size()-1);
-							
-			//search for n position lists that contain all n positions of the subset
-			for (List<Integer> subset : subsets) {
+			//search for n candidates that fit into n cells in total, candidates with more positions can not be part of the clique
+			for (int[] clique : findCliques(candidatePositions, 2, this.maxCliqueSize)) {
 				
-				//just use subsets with at least 2 positions
-				if (subset.size() < 2) continue;
-				
-				//initiate the list to save the clique candidates
-				List<Integer> cliqueCandidateList = new LinkedList<Integer>();
-				
-				//find candidates which positions contains only the positions of the subset
-				for (Integer candidate : usedCandidates) {
-					if (this.isSubset(candidatePositions.get(candidate), subset)) {
-						cliqueCandidateList.add(candidate);
-					}
+				//the candidates of the clique are located within these cells, the other candidates of the cells can be removed
+				for (int remaining = clique[1]; remaining != 0; remaining &= remaining - 1) {
+					int position = Integer.numberOfTrailingZeros(remaining);
+					notesChanged = currentState.getCandidates().removeCandidates(cellList.get(position).getIndex(), ~clique[0]) ? true : notesChanged;
 				}
 				
-				//if there are as much clique elements as positions in the subset the candidates are within theses positions.
-				//The other candidates at the same position can be removed.
-				if (cliqueCandidateList.size() == subset.size()) {
-					
-					for (Integer candidate : usedCandidates) {
-						if (cliqueCandidateList.contains(candidate)) continue;
-						for (Integer position : candidatePositions.get(candidate)) {
-							if (subset.contains(position)) {
-								notesChanged = currentState.getNoteManager().removeNote(cellList.get(position), candidate) ? true : notesChanged;
-							}
-						}
-					}
-					
-				}
-
 			}
 							
 		}
@@ -128,7 +128,9 @@ public class HumanSolver extends StrategyExecutor implements ConsecutiveSolver {
 					solverField.getCell(cell.getIndex()).setValue(cell.getValue());
 				}
 				//iterate through the candidates and try to solve the field after setting the value of the cell
-				for (Integer candidate : currentState.getNoteManager().getNotes(solveStep.getSolvedCell())) {
+				int candidateMask = currentState.getCandidates().getMask(solveStep.getSolvedCell().getIndex());
+				for (int remaining = candidateMask; remaining != 0; remaining &= remaining - 1) {
+					int candidate = CandidateGrid.getLowestCandidate(remaining);
 					//set candidate as cell value
 					solverField.getCell(solveStep.getSolvedCell().getIndex()).setValue(candidate);
 					//try to solve the field, as it is unique solvable the candidate is the
@@ -148,7 +150,7 @@ public class HumanSolver extends StrategyExecutor implements ConsecutiveSolver {
 										solveStep.hasChangedNotes(), 
 										this.getUsedStrategies());
 			
-		} else {
+		} else if (DebugHelper.isLogging(DebugHelper.PackageName.Solver)) {
 			DebugHelper.log(DebugHelper.PackageName.Solver, "executeStrategies() results no unique solution or no solved cell: " + result);
 		}
 		
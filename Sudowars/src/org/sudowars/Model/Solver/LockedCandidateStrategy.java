@@ -44,6 +44,7 @@
  ******************************************************************************/
 package org.sudowars.Model.Solver;
 
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -100,6 +101,29 @@ public class LockedCandidateStrategy extends SolverStrategy {
 			throw new IllegalArgumentException("given SolverState cannot be null.");
 		}
 		
+		return this.executeStrategy(currentState, getAllGroupIds(currentState));
+		
+	}
+	
+	/**
+	 * Executes the strategy on the given groups of the current state
+	 * @param currentState The current solution state
+	 * @param groupIds The ids of the groups to execute the strategy on
+	 * @return List of SolveSteps calculated by the strategy
+	 * @throws NotSolvableException if the strategy detects that the current field is not solvable
+	 * @throws IllegalArgumentException if the given state or the given group ids are <code>null</code>
+	 */
+	@Override
+	public List<SolveStep> executeStrategy(SolverState currentState, BitSet groupIds) throws IllegalArgumentException {
+		
+		if (currentState == null) {
+			throw new IllegalArgumentException("given SolverState cannot be null.");
+		}
+		
+		if (groupIds == null) {
+			throw new IllegalArgumentException("given group ids cannot be null.");
+		}
+		
 		//strategy needs standard ruleset to solve cells or rather reduce candidates
 		if (!StandardRulesetFactory.getInstance().isStandardRuleset(currentState.getDependencyManager())) {
 			return new LinkedList<SolveStep>();
@@ -110,12 +134,14 @@ public class LockedCandidateStrategy extends SolverStrategy {
 		Boolean notesChanged = false;
 
 		//iterate through the dependency groups and find cells that hold the same candidate and are located together in another group		
-		for (DependencyGroup dependencyGroup : currentState.getDependencyManager().getDependencyGroups()) {
+		for (int groupId = groupIds.nextSetBit(0); groupId >= 0; groupId = groupIds.nextSetBit(groupId + 1)) {
+			DependencyGroup dependencyGroup = currentState.getDependencyManager().getDependencyGroup(groupId);
 			
 			//get all candidates that are used within the DependencyGroup
-			List<Integer> candidateList = this.getCandidateList(dependencyGroup, currentState);
+			int candidateMask = this.getCandidateMask(dependencyGroup, currentState);
 					
-			for (int candidateValue : candidateList) {
+			for (int remaining = candidateMask; remaining != 0; remaining &= remaining - 1) {
+				int candidateValue = CandidateGrid.getLowestCandidate(remaining);
 				//get all cells that use the value in their candidate list
 				List<Cell> candidateCells = this.getCandidateCells(candidateValue, dependencyGroup, currentState);
 				//check if the cells are located in a single group
@@ -126,7 +152,7 @@ public class LockedCandidateStrategy extends SolverStrategy {
 					//delete candidates from other cells in the group
 					for (Cell cell : commonGroup.getCells(currentState.getField())) {
 						if (!candidateCells.contains(cell)) {
-							notesChanged = currentState.getNoteManager().removeNote(cell, candidateValue) ? true : notesChanged;
+							notesChanged = currentState.getCandidates().removeCandidate(cell.getIndex(), candidateValue) ? true : notesChanged;
 						}
 					}					
 				}
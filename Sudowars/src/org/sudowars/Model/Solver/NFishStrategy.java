@@ -44,7 +44,6 @@
  ******************************************************************************/
 package org.sudowars.Model.Solver;
 
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -65,6 +64,37 @@ import org.sudowars.Model.Sudoku.RuleManagement.RuleApplier.StandardRulesetFacto
 public class NFishStrategy extends SolverStrategy {
 		
 	private static final long serialVersionUID = -8655943794410835173L;
+	
+	/**
+	 * The default maximum size of the searched fish
+	 */
+	public static final int DEFAULT_MAX_FISH_SIZE = 4;
+	
+	private int maxFishSize = DEFAULT_MAX_FISH_SIZE;
+	
+	/**
+	 * Returns the maximum size of the searched fish
+	 * @return the maximum number of rows or columns of a fish
+	 */
+	public int getMaxFishSize() {
+		return this.maxFishSize;
+	}
+	
+	/**
+	 * Sets the maximum size of the searched fish, <code>2</code> searches X-Wings only, <code>3</code> 
+	 * adds Swordfish and <code>4</code> adds Jellyfish.
+	 * @param maxFishSize the maximum number of rows or columns of a fish
+	 * @throws IllegalArgumentException if the given size is smaller than two
+	 */
+	public void setMaxFishSize(int maxFishSize) throws IllegalArgumentException {
+		
+		if (maxFishSize < 2) {
+			throw new IllegalArgumentException("given fish size has to be at least two");
+		}
+		
+		this.maxFishSize = maxFishSize;
+		
+	}
 
 	/**
 	 * Executes the strategy on the current state
@@ -74,8 +104,6 @@ public class NFishStrategy extends SolverStrategy {
 	 * @throws IllegalArgumentException if the given state is <code>null</code>
 	 */
 	public List<SolveStep> executeStrategy(SolverState currentState) throws IllegalArgumentException {
-				
-		DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "*** Execute nFish strategy ***");
 		
 		if (currentState == null) {
 			throw new IllegalArgumentException("given SolverState cannot be null.");
@@ -91,155 +119,42 @@ public class NFishStrategy extends SolverStrategy {
 			return new LinkedList<SolveStep>();
 		}
 		
-		//TODO ensure that field is a "normal" sudoku field
-		
 		//initiate result
 		List<SolveStep> result = new LinkedList<SolveStep>();
 		Boolean notesChanged = false;
 		
-		//get current candidate list of the field
-		List<Integer> candidateList = this.getCandidateList(currentState);
-		DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "total candidate list : " + DebugHelper.getListString(candidateList));
+		int width = currentState.getField().getStructure().getWidth();
+		int height = currentState.getField().getStructure().getHeight();
+		CandidateGrid candidates = currentState.getCandidates();
 		
-		//iterate through the candidate list and find columns/rows that hold the candidate at the same position
-		for (Integer candidate : candidateList) {
-			
-			DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "check candidate " + candidate);
-			
-			//initiate working variables
-			List<Integer> possiblePositions;
-			List<List<Integer>> subsets;
-			
-			//--- check columns ---------------------------------------------------------------------------------------------------------
-			
-			//initiate position list of the candidate in the columns
-			HashMap<Integer, List<Integer>> candidateColPositions = new HashMap<Integer, List<Integer>>();
-			possiblePositions = new LinkedList<Integer>();
-			for (int colID = 0 ; colID < currentState.getField().getStructure().getWidth() ; colID++) {
-				//initiate position list
-				candidateColPositions.put(colID, new LinkedList<Integer>());
-				//iterate through all cells of the columns and save candidate's positions
-				for (int rowID = 0 ; rowID < currentState.getField().getStructure().getHeight() ; rowID++) {
-					if (currentState.getNoteManager().hasNote(currentState.getField().getCell(colID,rowID), candidate)) {
-						candidateColPositions.get(colID).add(rowID);
-						if (!possiblePositions.contains(rowID)) possiblePositions.add(rowID);
-					}
+		//collect the positions of all candidates in one pass, bit i of a column mask marks the i-th row 
+		//and bit i of a row mask marks the i-th column. The masks of candidate c are stored at index c-1.
+		int[][] candidateColPositions = new int[CandidateGrid.MAX_VALUE][width];
+		int[][] candidateRowPositions = new int[CandidateGrid.MAX_VALUE][height];
+		for (int rowID = 0 ; rowID < height ; rowID++) {
+			for (int colID = 0 ; colID < width ; colID++) {
+				int cellMask = candidates.getMask(currentState.getField().getCell(colID, rowID).getIndex());
+				for (int remaining = cellMask; remaining != 0; remaining &= remaining - 1) {
+					int candidateID = Integer.numberOfTrailingZeros(remaining);
+					candidateColPositions[candidateID][colID] |= 1 << rowID;
+					candidateRowPositions[candidateID][rowID] |= 1 << colID;
 				}
 			}
+		}
+		
+		//iterate through the candidate list and find columns/rows that hold the candidate at the same positions
+		int candidateMask = this.getCandidateMask(currentState);
+		for (int remaining = candidateMask; remaining != 0; remaining &= remaining - 1) {
+			int candidateID = Integer.numberOfTrailingZeros(remaining);
 			
-			DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "colPositionLists of candidate " + candidate);
-			for (int colID = 0 ; colID < currentState.getField().getStructure().getWidth() ; colID++) {
-				DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "--- col " + colID + ": " + DebugHelper.getListString(candidateColPositions.get(colID)));
-			}
-			DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "possible positions = " + DebugHelper.getListString(possiblePositions));
-			
-			//generate all subsets of the used positions
-			subsets = this.getSubsets(possiblePositions);
-			
-			//search for n position lists that contain all n positions of the subset
-			for (List<Integer> subset : subsets) {
-				
-				//just use subsets with at least 2 positions
-				if (subset.size() < 2 || subset.size() == possiblePositions.size()) continue;
-				
-				//initiate the list to save the columns that contains the subset
-				List<Integer> colCandidateList = new LinkedList<Integer>();
-				
-				//find position lists that only contains the positions of the subset
-				for (int colID = 0 ; colID < currentState.getField().getStructure().getWidth() ; colID++) {	
-					if (candidateColPositions.get(colID).size() > 0 && this.isSubset(candidateColPositions.get(colID), subset)) {
-						colCandidateList.add(colID);
-					}
-				}
-								
-				//if there are as much columns as positions in the subset the candidate are within theses positions.
-				//The candidates in the rows of the same position can be removed.
-				if (colCandidateList.size() == subset.size()) {
-					
-					DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "nFish found in columns " + DebugHelper.getListString(colCandidateList) + " (subset = " + DebugHelper.getListString(subset) + ")");
-					
-					for (Integer rowID : subset) {
-						for (int colID = 0 ; colID < currentState.getField().getStructure().getWidth() ; colID++) {
-							if (!colCandidateList.contains(colID)) {
-								if (currentState.getNoteManager().hasNote(currentState.getField().getCell(colID, rowID), candidate))
-									DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "remove candidate " + candidate + " from (" + colID + "," + rowID + ")");
-								notesChanged = currentState.getNoteManager().removeNote(currentState.getField().getCell(colID, rowID), candidate) ? true : notesChanged;
-							}
-						}
-					}
-					
-				} else {
-					
-					//DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "subset did not match: " + DebugHelper.getListString(subset));
-					
-				}
-
-			}
-			
-			//--- check rows ---------------------------------------------------------------------------------------------------------			
-			
-			//initiate position list of the candidate in the rows
-			HashMap<Integer, List<Integer>> candidateRowPositions = new HashMap<Integer, List<Integer>>();
-			possiblePositions = new LinkedList<Integer>();
-			for (int rowID = 0 ; rowID < currentState.getField().getStructure().getHeight() ; rowID++) {
-				//initiate position list
-				candidateRowPositions.put(rowID, new LinkedList<Integer>());
-				//iterate through all cells of the row and save candidate's positions
-				for (int colID = 0 ; colID < currentState.getField().getStructure().getWidth() ; colID++) {
-					if (currentState.getNoteManager().hasNote(currentState.getField().getCell(colID,rowID), candidate)) {
-						candidateRowPositions.get(rowID).add(colID);
-						if (!possiblePositions.contains(colID)) possiblePositions.add(colID);
-					}
-				}
+			//if n columns hold the candidate within n rows, the candidate can be removed from the other cells of these rows
+			for (int[] fish : findCliques(candidateColPositions[candidateID], 2, this.maxFishSize)) {
+				notesChanged = this.removeFishCandidate(currentState, candidateID + 1, fish[0], fish[1], true) ? true : notesChanged;
 			}
 			
-			DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "rowPositionLists of candidate " + candidate);
-			for (int rowID = 0 ; rowID < currentState.getField().getStructure().getHeight() ; rowID++) {
-				DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "--- row " + rowID + ": " + DebugHelper.getListString(candidateRowPositions.get(rowID)));
-			}
-			DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "possible positions = " + DebugHelper.getListString(possiblePositions));
-			
-			//generate all subsets of the used positions
-			subsets = this.getSubsets(possiblePositions);
-			
-			//search for n position lists that contain all n positions of the subset
-			for (List<Integer> subset : subsets) {
-				
-				//just use subsets with at least 2 positions
-				if (subset.size() < 2 || subset.size() == possiblePositions.size()) continue;
-				
-				//initiate the list to save the rows that contains the subset
-				List<Integer> rowCandidateList = new LinkedList<Integer>();
-				
-				//find position lists that only contains the positions of the subset
-				for (int rowID = 0 ; rowID < currentState.getField().getStructure().getWidth() ; rowID++) {	
-					if (candidateRowPositions.get(rowID).size() > 0 && this.isSubset(candidateRowPositions.get(rowID), subset)) {
-						rowCandidateList.add(rowID);
-					}
-				}
-								
-				//if there are as much rows as positions in the subset the candidate are within theses positions.
-				//The candidates in the rows of the same position can be removed.
-				if (rowCandidateList.size() == subset.size()) {
-					
-					DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "nFish found in row " + DebugHelper.getListString(rowCandidateList) + " (subset = " + DebugHelper.getListString(subset) + ")");
-					
-					for (Integer colID : subset) {
-						for (int rowID = 0 ; rowID < currentState.getField().getStructure().getHeight() ; rowID++) {
-							if (!rowCandidateList.contains(rowID)) {
-								if (currentState.getNoteManager().hasNote(currentState.getField().getCell(colID, rowID), candidate))
-									DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "remove candidate " + candidate + " from (" + colID + "," + rowID + ")");
-								notesChanged = currentState.getNoteManager().removeNote(currentState.getField().getCell(colID, rowID), candidate) ? true : notesChanged;
-							}
-						}
-					}
-					
-				} else {
-					
-					//DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "subset did not match: " + DebugHelper.getListString(subset));
-					
-				}
-
+			//if n rows hold the candidate within n columns, the candidate can be removed from the other cells of these columns
+			for (int[] fish : findCliques(candidateRowPositions[candidateID], 2, this.maxFishSize)) {
+				notesChanged = this.removeFishCandidate(currentState, candidateID + 1, fish[0], fish[1], false) ? true : notesChanged;
 			}
 			
 		}
@@ -249,8 +164,56 @@ public class NFishStrategy extends SolverStrategy {
 			result.add(new SolveStep(notesChanged));
 		}
 		
-		DebugHelper.log(DebugHelper.PackageName.SolverStrategy,  "*** Finished nFish strategy (notes " + ((result.size() == 0) ? "NOT " : "") + "changed) ***");
+		return result;
+		
+	}
+	
+	/**
+	 * Removes the candidate of a fish from the crossing lines which are not part of the fish
+	 * @param currentState the current solution state
+	 * @param candidate the candidate of the fish
+	 * @param baseLines the columns or rows of the fish which hold the candidate
+	 * @param coverLines the rows or columns the candidate is located in
+	 * @param columnFish <code>true</code> if the base lines are columns, <code>false</code> if they are rows
+	 * @return <code>true</code> if a candidate was removed, <code>false</code> otherwise
+	 */
+	private boolean removeFishCandidate(SolverState currentState, int candidate, int baseLines, int coverLines, boolean columnFish) {
 		
+		boolean notesChanged = false;
+		int lineLength = columnFish ? currentState.getField().getStructure().getWidth() : currentState.getField().getStructure().getHeight();
+		
+		for (int coverRemaining = coverLines; coverRemaining != 0; coverRemaining &= coverRemaining - 1) {
+			int coverID = Integer.numberOfTrailingZeros(coverRemaining);
+			for (int baseID = 0; baseID < lineLength; baseID++) {
+				if ((baseLines & (1 << baseID)) != 0) continue;
+				Cell cell = columnFish ? currentState.getField().getCell(baseID, coverID) : currentState.getField().getCell(coverID, baseID);
+				if (currentState.getCandidates().removeCandidate(cell.getIndex(), candidate)) {
+					notesChanged = true;
+				}
+			}
+		}
+		
+		if (notesChanged && DebugHelper.isLogging(DebugHelper.PackageName.SolverStrategy)) {
+			DebugHelper.log(DebugHelper.PackageName.SolverStrategy, "nFish of candidate " + candidate + " found in " + (columnFish ? "columns " : "rows ") + 
+					DebugHelper.getListString(getBitList(baseLines, 0)) + " (positions = " + DebugHelper.getListString(getBitList(coverLines, 0)) + ")");
+		}
+		
+		return notesChanged;
+		
+	}
+	
+	/**
+	 * Returns the set bits of the given mask as list
+	 * @param mask the mask to convert
+	 * @param offset the number added to the position of each set bit
+	 * @return list of the set bits
+	 */
+	private static List<Integer> getBitList(int mask, int offset) {
+		
+		List<Integer> result = new LinkedList<Integer>();
+		for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+			result.add(Integer.numberOfTrailingZeros(remaining) + offset);
+		}
 		return result;
 		
 	}
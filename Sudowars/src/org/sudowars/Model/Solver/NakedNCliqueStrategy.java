@@ -44,6 +44,7 @@
  ******************************************************************************/
 package org.sudowars.Model.Solver;
 
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -63,6 +64,36 @@ import org.sudowars.Model.Sudoku.RuleManagement.RuleApplier.StandardRulesetFacto
 public class NakedNCliqueStrategy extends SolverStrategy {
 	
 	private static final long serialVersionUID = -7808464980666550386L;
+	
+	/**
+	 * The default maximum size of the searched cliques
+	 */
+	public static final int DEFAULT_MAX_CLIQUE_SIZE = 4;
+	
+	private int maxCliqueSize = DEFAULT_MAX_CLIQUE_SIZE;
+	
+	/**
+	 * Returns the maximum size of the searched cliques
+	 * @return the maximum number of cells of a clique
+	 */
+	public int getMaxCliqueSize() {
+		return this.maxCliqueSize;
+	}
+	
+	/**
+	 * Sets the maximum size of the searched cliques. Bigger cliques are found as hidden clique of the remaining candidates.
+	 * @param maxCliqueSize the maximum number of cells of a clique
+	 * @throws IllegalArgumentException if the given size is smaller than two
+	 */
+	public void setMaxCliqueSize(int maxCliqueSize) throws IllegalArgumentException {
+		
+		if (maxCliqueSize < 2) {
+			throw new IllegalArgumentException("given clique size has to be at least two");
+		}
+		
+		this.maxCliqueSize = maxCliqueSize;
+		
+	}
 
 	/**
 	 * Executes the strategy on the current state
@@ -77,6 +108,29 @@ public class NakedNCliqueStrategy extends SolverStrategy {
 			throw new IllegalArgumentException("given SolverState cannot be null.");
 		}
 		
+		return this.executeStrategy(currentState, getAllGroupIds(currentState));
+		
+	}
+	
+	/**
+	 * Executes the strategy on the given groups of the current state
+	 * @param currentState The current solution state
+	 * @param groupIds The ids of the groups to execute the strategy on
+	 * @return List of SolveSteps calculated by the strategy
+	 * @throws NotSolvableException if the strategy detects that the current field is not solvable
+	 * @throws IllegalArgumentException if the given state or the given group ids are <code>null</code>
+	 */
+	@Override
+	public List<SolveStep> executeStrategy(SolverState currentState, BitSet groupIds) throws IllegalArgumentException {
+		
+		if (currentState == null) {
+			throw new IllegalArgumentException("given SolverState cannot be null.");
+		}
+		
+		if (groupIds == null) {
+			throw new IllegalArgumentException("given group ids cannot be null.");
+		}
+		
 		//strategy needs standard ruleset to solve cells or rather reduce candidates
 		if (!StandardRulesetFactory.getInstance().isStandardRuleset(currentState.getDependencyManager())) {
 			return new LinkedList<SolveStep>();
@@ -87,47 +141,27 @@ public class NakedNCliqueStrategy extends SolverStrategy {
 		Boolean notesChanged = false;
 		
 		//iterate through the dependency groups and find cells that hold identical candidate lists
-		for (DependencyGroup dependencyGroup : currentState.getDependencyManager().getDependencyGroups()) {
+		for (int groupId = groupIds.nextSetBit(0); groupId >= 0; groupId = groupIds.nextSetBit(groupId + 1)) {
+			DependencyGroup dependencyGroup = currentState.getDependencyManager().getDependencyGroup(groupId);
 		
 			//get all cells of the group with a candidate list
 			List<Cell> cellList = this.getUnsetCells(currentState, dependencyGroup);
 			
-			//get all used candidates within the group
-			List<Integer> usedCandidates = this.getCandidateList(dependencyGroup, currentState);
-			
-			//generate all possible subsets of the used candidates
-			List<List<Integer>> subsets = this.getSubsets(usedCandidates);
+			//get the candidates of the cells once, they are combined to find the cliques
+			int[] cellMasks = new int[cellList.size()];
+			for (int i = 0; i < cellList.size(); i++) {
+				cellMasks[i] = currentState.getCandidates().getMask(cellList.get(i).getIndex());
+			}
 			
-			//search for n cells that contain all n candidates of the subset
-			for (List<Integer> subset : subsets) {
-				
-				//just use subsets with at least 2 and candidates
-				if (subset.size() < 2) continue;
-				
-				//initiate the list of cells that hold the cells of the potential clique
-				List<Cell> cliqueCellList = new LinkedList<Cell>();
-				
-				//iterate through the cells to find cells that only contain the candidates of the subset
-				for (int i = 0; i < cellList.size(); i++) {
-					Cell currentCell = cellList.get(i);
-					List<Integer> cellCandidates = currentState.getNoteManager().getNotes(currentCell);
-					if (this.isSubset(cellCandidates, subset)) {
-						cliqueCellList.add(currentCell);
-					}
-				}
+			//search for n cells that contain n candidates in total, cells with more candidates can not be part of the clique.
+			//a cell with a single candidate is a clique too, no other strategy removes its candidate from the group
+			for (int[] clique : findCliques(cellMasks, 1, this.maxCliqueSize)) {
 				
-				//if there are as much cells as candidates the value are located within these fields.
-				//the candidates of other fields with the same value can be removed.
-				if (cliqueCellList.size() == subset.size()) {
-										
-					for (Cell cell : cellList) {
-						if (!cliqueCellList.contains(cell)) {
-							for (int candidateValue : subset) {
-								notesChanged = currentState.getNoteManager().removeNote(cell, candidateValue) ? true : notesChanged;
-							}
-						}
+				//the candidates of the clique are located within these cells, they can be removed from the other cells
+				for (int i = 0; i < cellMasks.length; i++) {
+					if ((clique[0] & (1 << i)) == 0) {
+						notesChanged = currentState.getCandidates().removeCandidates(cellList.get(i).getIndex(), clique[1]) ? true : notesChanged;
 					}
-					
 				}
 				
 			}
@@ -44,6 +44,7 @@
  ******************************************************************************/
 package org.sudowars.Model.Solver;
 
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -75,16 +76,40 @@ public class NakedSingleStrategy extends SolverStrategy {
 			throw new IllegalArgumentException("given SolverState cannot be null.");
 		}
 		
+		return this.executeStrategy(currentState, getAllGroupIds(currentState));
+		
+	}
+	
+	/**
+	 * Executes the strategy on the given groups of the current state
+	 * @param currentState The current solution state
+	 * @param groupIds The ids of the groups to execute the strategy on
+	 * @return List of SolveSteps calculated by the strategy
+	 * @throws NotSolvableException if the strategy detects that the current field is not solvable
+	 * @throws IllegalArgumentException if the given state or the given group ids are <code>null</code>
+	 */
+	@Override
+	public List<SolveStep> executeStrategy(SolverState currentState, BitSet groupIds) throws IllegalArgumentException, NotSolvableException {
+		
+		if (currentState == null) {
+			throw new IllegalArgumentException("given SolverState cannot be null.");
+		}
+		
+		if (groupIds == null) {
+			throw new IllegalArgumentException("given group ids cannot be null.");
+		}
+		
 		//strategy needs standard ruleset to solve cells or rather reduce candidates
 		if (!StandardRulesetFactory.getInstance().isStandardRuleset(currentState.getDependencyManager())) {
 			return new LinkedList<SolveStep>();
 		}
 		
-		List<Cell> solvedCells = new LinkedList<Cell>();
+		boolean[] solvedCells = new boolean[currentState.getCandidates().getCellCount()];
 		List<SolveStep> result = new LinkedList<SolveStep>();
 		
 		//iterate through the dependency groups and find cells that can hold just one value						
-		for (DependencyGroup dependencyGroup : currentState.getDependencyManager().getDependencyGroups()) {
+		for (int groupId = groupIds.nextSetBit(0); groupId >= 0; groupId = groupIds.nextSetBit(groupId + 1)) {
+			DependencyGroup dependencyGroup = currentState.getDependencyManager().getDependencyGroup(groupId);
 					
 			//get all cells of the group that are not set or solved yet
 			List<Cell> unsetCells = this.getUnsetCells(currentState, dependencyGroup, solvedCells);
@@ -93,9 +118,9 @@ public class NakedSingleStrategy extends SolverStrategy {
 				
 				//get the cell and its notes
 				Cell unsetCell = unsetCells.get(0);
-				List<Integer> cellNotes = currentState.getNoteManager().getNotes(unsetCell);
-				if (cellNotes.size() != 1) throw new NotSolvableException();		
-				int cellValue = cellNotes.get(0);
+				int cellNotes = currentState.getCandidates().getMask(unsetCell.getIndex());
+				if (CandidateGrid.countCandidates(cellNotes) != 1) throw new NotSolvableException();		
+				int cellValue = CandidateGrid.getLowestCandidate(cellNotes);
 				
 				//delete solution from all DependencyGroups of the solved Cell
 				Boolean notesChanged = this.removeValueFromNeighbourNotes(unsetCell, cellValue, currentState);
@@ -104,7 +129,7 @@ public class NakedSingleStrategy extends SolverStrategy {
 				result.add(new SolveStep(unsetCell, cellValue, notesChanged));
 				
 				//save solved cell
-				solvedCells.add(unsetCell);
+				solvedCells[unsetCell.getIndex()] = true;
 				
 			}
 			
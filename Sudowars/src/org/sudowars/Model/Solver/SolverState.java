@@ -45,15 +45,17 @@
 package org.sudowars.Model.Solver;
 
 import java.io.Serializable;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.sudowars.Model.Sudoku.Field.Cell;
+import org.sudowars.Model.Sudoku.Field.DataCell;
 import org.sudowars.Model.Sudoku.Field.Field;
 import org.sudowars.Model.Sudoku.RuleManagement.DependencyGroup;
 import org.sudowars.Model.Sudoku.RuleManagement.DependencyManager;
-import org.sudowars.Model.SudokuUtil.NoteManager;
+import org.sudowars.Model.Sudoku.RuleManagement.UsedValueMasks;
 
 /**
  * This class defines the state of the {@link StrategyExecutor}. It holds all necessary information so that the 
@@ -66,9 +68,21 @@ public class SolverState implements Serializable {
 
 	protected Field<Cell> field;
 	private DependencyManager dependencyManager;
-	private NoteManager noteManager;
+	private CandidateGrid candidates;
 	private SolveStep lastSolveStep;
 	
+	//records the changes while backtracking, null until the first mark was set
+	private transient SolverTrail trail;
+	
+	//propagates the singles after every change, null until the propagation was started
+	private transient ConstraintPropagator propagator;
+	
+	//groups changed since the strategy polled them the last time, null until the first strategy polled them
+	private transient Map<SolverStrategy, BitSet> dirtyGroups;
+	
+	//dispatches the changed cells to the propagator and the dirty groups, null until one of them was started
+	private transient CellChangeListener changeListener;
+	
 	/**
 	 * Sets the field of the SolverState
 	 * @param field the field to set
@@ -81,6 +95,7 @@ public class SolverState implements Serializable {
 		}
 		
 		this.field = field;
+		this.resetChangeTracking();
 		
 	}
 	
@@ -96,30 +111,42 @@ public class SolverState implements Serializable {
 		}
 		
 		this.dependencyManager = dependencyManager;
+		this.resetChangeTracking();
 		
 	}
 
 	/**
-	 * Sets the NoteManager of the SolverState
-	 * @param NoteManager the NoteManager to set
-	 * @throws IllegalArgumentException thrown if given NoteManager is <code>null</code>
+	 * Sets the {@link CandidateGrid} of the SolverState
+	 * @param candidates the {@link CandidateGrid} to set
+	 * @throws IllegalArgumentException thrown if given {@link CandidateGrid} is <code>null</code>
 	 */
-	public void setNoteManager(NoteManager noteManager) throws IllegalArgumentException{
+	public void setCandidates(CandidateGrid candidates) throws IllegalArgumentException{
 		
-		if (noteManager == null) {
-			throw new IllegalArgumentException("Given NoteManager is null");
+		if (candidates == null) {
+			throw new IllegalArgumentException("Given CandidateGrid is null");
 		}
 		
-		this.noteManager = noteManager;
+		this.resetChangeTracking();
+		this.candidates = candidates;
+		this.candidates.setTrail(this.trail);
 		
 	}
 	
 	/**
-	 * Generates a local instance of {@link NoteManager} and filter all possible values
+	 * Generates the local {@link CandidateGrid} and filter all possible values
 	 */
-	private void createNoteManager() {
+	private void createCandidates() {
 		
-		this.noteManager = new NoteManager();
+		this.candidates = new CandidateGrid(this.field.getStructure().getUsedSlotCount());
+		
+		//the masks of the standard rules are counted once instead of evaluating every group of every cell
+		if (UsedValueMasks.isSupported(this.dependencyManager)) {
+			UsedValueMasks usedValues = new UsedValueMasks(this.field, this.dependencyManager);
+			for (Cell cell : this.field.getCells()) {
+				if (!cell.isSet()) this.candidates.setMask(cell.getIndex(), usedValues.getValidMask(cell.getIndex()));
+			}
+			return;
+		}
 		
 		//iterate through all cells and search the candidates for the unsolved cells
 		for (Cell cell : this.field.getCells()) {
@@ -127,32 +154,19 @@ public class SolverState implements Serializable {
 			//set fields have no candidates and can be skipped
 			if (cell.isSet()) continue;
 			
-			//collect all valid values of the cell
-			List<List<Integer>> groupCandidates = new LinkedList<List<Integer>>();			
-			for (DependencyGroup cellGroup : this.dependencyManager.getDependencyGroupsOfCell(cell)) {
-				groupCandidates.add(cellGroup.getRule().getValidValues(this.field, cellGroup, cell));
+			//candidates of the cell have to be valid in all groups of the cell
+			int cellCandidates = 0;
+			boolean firstGroup = true;
+			for (int groupId : this.dependencyManager.getGroupIdsOfCell(cell.getIndex())) {
+				DependencyGroup cellGroup = this.dependencyManager.getDependencyGroup(groupId);
+				int groupCandidates = cellGroup.getRule().getValidMask(this.field, cellGroup, cell);
+				cellCandidates = firstGroup ? groupCandidates : cellCandidates & groupCandidates;
+				firstGroup = false;
 			}
 			
 			//if there is no candidate for the cell it can not be solved
-			if (groupCandidates.size() == 0) {
-				//TODO Exception werfen?
-				continue;
-			}
-			
-			//candidates of the cell have to be found in all candidates lists
-			List<Integer> cellCandidates = groupCandidates.get(0);
-			for (int listIndex = 1; listIndex < groupCandidates.size(); listIndex++) {
-				//compare the current and the group list and delete candidates that can not be found in both lists
-				Iterator<Integer> it = cellCandidates.iterator();
-				while (it.hasNext()) {
-					if (!groupCandidates.get(listIndex).contains(it.next())) it.remove();
-				}
-			}
-			
-			//add candidates to NoteManager
-			for (int candidate : cellCandidates) {
-				this.noteManager.addNote(cell, candidate);
-			}
+			//TODO Exception werfen?
+			this.candidates.setMask(cell.getIndex(), cellCandidates);
 			
 		}
 		
@@ -172,7 +186,7 @@ public class SolverState implements Serializable {
 				
 		this.setField(field);
 		this.setDependencyManager(dependencyManager);
-		this.createNoteManager();
+		this.createCandidates();
 		
 	}
 	
@@ -193,11 +207,11 @@ public class SolverState implements Serializable {
 	}
 
 	/**
-	 * Returns the current {@link NoteManager} of the {@link ConsecutiveSolver}.
-	 * @return The current {@link NoteManager} of the {@link ConsecutiveSolver}.
+	 * Returns the current {@link CandidateGrid} of the {@link ConsecutiveSolver}.
+	 * @return The current {@link CandidateGrid} of the {@link ConsecutiveSolver}.
 	 */
-	public NoteManager getNoteManager() {
-		return this.noteManager;
+	public CandidateGrid getCandidates() {
+		return this.candidates;
 	}
 
 	/**
@@ -220,35 +234,206 @@ public class SolverState implements Serializable {
 	}
 	
 	/**
-	 * Returns a copy of the state
-	 * @return a copy of the state
+	 * Sets the value of a cell. The change is recorded if the trail was marked before.
+	 * @param cellIndex index of the cell
+	 * @param value the value to set
 	 */
-	public SolverState clone() {
+	public void setCellValue(int cellIndex, int value) {
 		
-		//clone field
-		Field<Cell> newField = this.field.clone();
+		DataCell cell = (DataCell) this.field.getCell(cellIndex);
+		if (cell.getValue() == value) return;
+		if (this.trail != null) {
+			this.trail.recordValue(cellIndex, cell.getValue());
+		}
+		cell.setValue(value);
+		if (this.changeListener != null) {
+			this.changeListener.cellChanged(cellIndex);
+		}
 		
-		//create new SolverState
-		SolverState newSolverState = new SolverState(newField, this.dependencyManager);
+	}
+	
+	/**
+	 * Returns the values of all cells ordered by their index.
+	 * @return the values of all cells
+	 */
+	public int[] getCellValues() {
 		
-		//clone NoteManager
-		NoteManager newNoteManager = newSolverState.getNoteManager();
+		int[] values = new int[this.field.getStructure().getUsedSlotCount()];
 		for (Cell cell : this.field.getCells()) {
-			//remove all notes from the new NoteManager
-			newNoteManager.removeAllNotes(newField.getCell(cell.getIndex()));
-			//copy notes from old NoteManager
-			if (this.noteManager.hasNotes(cell)) {
-				for (int candidate : this.noteManager.getNotes(cell)) {
-					newNoteManager.addNote(newField.getCell(cell.getIndex()), candidate);
-				}
+			values[cell.getIndex()] = cell.getValue();
+		}
+		
+		return values;
+		
+	}
+	
+	/**
+	 * Sets the given values of all unset cells and removes their candidates, used to restore 
+	 * a solution saved by {@link #getCellValues()}. The changes are recorded if the trail was marked before.
+	 * @param values the values of all cells ordered by their index
+	 */
+	public void fillCells(int[] values) {
+		
+		for (Cell cell : this.field.getCells()) {
+			if (!cell.isSet() && values[cell.getIndex()] != DataCell.NOT_SET) {
+				this.setCellValue(cell.getIndex(), values[cell.getIndex()]);
+				this.candidates.removeAllCandidates(cell.getIndex());
 			}
 		}
+		
+	}
+	
+	/**
+	 * Starts recording all changes of the cell values and candidates and returns a mark 
+	 * to roll back to. Replacing the field or the {@link CandidateGrid} is not recorded.
+	 * @return the mark of the current state
+	 * @see SolverState#rollback(int)
+	 */
+	public int markTrail() {
+		
+		if (this.trail == null) {
+			this.trail = new SolverTrail(this.field.getStructure().getUsedSlotCount());
+			this.candidates.setTrail(this.trail);
+		}
+		
+		return this.trail.size();
+		
+	}
+	
+	/**
+	 * Restores the cell values and candidates of the given mark.
+	 * @param mark the mark returned by {@link #markTrail()}
+	 * @throws IllegalArgumentException if the given mark was not returned by {@link #markTrail()} or was already rolled back
+	 */
+	public void rollback(int mark) throws IllegalArgumentException {
+		
+		if (this.trail == null || mark < 0 || mark > this.trail.size()) {
+			throw new IllegalArgumentException("given mark is not valid");
+		}
+		
+		this.trail.rollback(mark, this.field, this.candidates, this.changeListener);
+		
+		//the queued changes belong to the dropped branch
+		if (this.propagator != null) {
+			this.propagator.clear();
+		}
+		
+	}
+	
+	/**
+	 * Solves all naked and hidden singles which follow from the changes since the last call. 
+	 * The first call considers all unset cells. Only standard rulesets are supported.
+	 * @param nakedSingleStrategy the strategy naked singles are accounted to
+	 * @param hiddenSingleStrategy the strategy hidden singles are accounted to
+	 * @param usedStrategies the list to add the strategy of every solved cell to
+	 * @return <code>true</code> if at least one cell was solved, <code>false</code> otherwise
+	 * @throws NotSolvableException if the state contradicts the rules
+	 */
+	boolean propagateSingles(SolverStrategy nakedSingleStrategy, SolverStrategy hiddenSingleStrategy, 
+			List<SolverStrategy> usedStrategies) throws NotSolvableException {
+		
+		if (this.propagator == null) {
+			this.propagator = new ConstraintPropagator(this);
+			this.startChangeTracking();
+		}
+		
+		return this.propagator.propagate(nakedSingleStrategy, hiddenSingleStrategy, usedStrategies);
+		
+	}
+	
+	/**
+	 * Returns the ids of the groups whose cells were changed since the last call with the same strategy 
+	 * and starts collecting the changes again. The first call of a strategy returns all groups.
+	 * @param strategy the strategy which is going to be executed on the returned groups
+	 * @return the ids of the changed groups
+	 */
+	BitSet pollDirtyGroups(SolverStrategy strategy) {
+		
+		if (this.dirtyGroups == null) {
+			this.dirtyGroups = new IdentityHashMap<SolverStrategy, BitSet>();
+			this.startChangeTracking();
+		}
+		
+		int groupCount = this.dependencyManager.getDependencyGroups().size();
+		BitSet result = this.dirtyGroups.put(strategy, new BitSet(groupCount));
+		if (result == null) {
+			result = new BitSet(groupCount);
+			result.set(0, groupCount);
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Starts notifying the propagator and the dirty groups about the changed cells
+	 */
+	private void startChangeTracking() {
+		
+		if (this.changeListener == null) {
+			this.changeListener = new CellChangeListener() {
+				public void cellChanged(int cellIndex) {
+					SolverState.this.cellChanged(cellIndex);
+				}
+			};
+			this.candidates.setListener(this.changeListener);
+		}
+		
+	}
+	
+	/**
+	 * Stops tracking the changed cells, the next propagation starts over with all unset cells and 
+	 * the next poll of the dirty groups returns all groups
+	 */
+	private void resetChangeTracking() {
+		
+		if (this.changeListener != null) {
+			this.candidates.setListener(null);
+			this.changeListener = null;
+		}
+		this.propagator = null;
+		this.dirtyGroups = null;
+		
+	}
 	
-		//return new state
-		return newSolverState;
+	/**
+	 * Queues the changed cell for the propagation and marks its groups as dirty
+	 * @param cellIndex index of the changed cell
+	 */
+	private void cellChanged(int cellIndex) {
+		
+		if (this.propagator != null) {
+			this.propagator.cellChanged(cellIndex);
+		}
+		
+		if (this.dirtyGroups != null) {
+			for (int groupId : this.dependencyManager.getGroupIdsOfCell(cellIndex)) {
+				for (BitSet groups : this.dirtyGroups.values()) {
+					groups.set(groupId);
+				}
+			}
+		}
 		
 	}
 	
+	/**
+	 * Initialises a new instance of the {@link SolverState} class as a copy of the given state.
+	 * @param other the state to copy
+	 */
+	private SolverState(SolverState other) {
+		this.field = other.field.clone();
+		this.dependencyManager = other.dependencyManager;
+		this.candidates = other.candidates.clone();
+	}
+	
+	/**
+	 * Returns a copy of the state
+	 * @return a copy of the state
+	 */
+	public SolverState clone() {
+		return new SolverState(this);
+	}
+	
 	/**
 	 * Compares this instance with the specified object and indicates if they are equal.
 	 * @param obj the object to compare this instance with.
@@ -278,10 +463,10 @@ public class SolverState implements Serializable {
 				return false;
 		} else if (!lastSolveStep.equals(other.lastSolveStep))
 			return false;
-		if (noteManager == null) {
-			if (other.noteManager != null)
+		if (candidates == null) {
+			if (other.candidates != null)
 				return false;
-		} else if (!noteManager.equals(other.noteManager))
+		} else if (!candidates.equals(other.candidates))
 			return false;
 		return true;
 	}	
@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Solver;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class holds the profiling counters of a {@link StrategyExecutor}. For every {@link SolverStrategy} 
+ * it counts the executions, the elapsed time, the eliminated candidates and the solved cells. Additionally 
+ * it counts the propagations of singles, the analysed backtracking candidates, the copied states and the 
+ * maximum recursion depth of the backtracking. The executor returns a copy of its counters, so the copy 
+ * can be logged or added to the counters of other executions.
+ */
+public class SolverStatistics implements Serializable {
+	
+	private static final long serialVersionUID = -2163474417760391262L;
+	
+	/**
+	 * This class holds the counters of a single {@link SolverStrategy}.
+	 */
+	public static class StrategyStatistics implements Serializable {
+		
+		private static final long serialVersionUID = 5824716003893513075L;
+		
+		private final SolverStrategy strategy;
+		private long invocations;
+		private long productiveInvocations;
+		private long time;
+		private long eliminatedCandidates;
+		private long solvedCells;
+		
+		/**
+		 * Initialises a new instance of the {@link StrategyStatistics} class
+		 * @param strategy the counted strategy
+		 */
+		private StrategyStatistics(SolverStrategy strategy) {
+			this.strategy = strategy;
+		}
+		
+		/**
+		 * Returns the counted strategy
+		 * @return the counted strategy
+		 */
+		public SolverStrategy getStrategy() {
+			return this.strategy;
+		}
+		
+		/**
+		 * Returns the number of executions of the strategy
+		 * @return the number of executions
+		 */
+		public long getInvocations() {
+			return this.invocations;
+		}
+		
+		/**
+		 * Returns the number of executions which changed the field
+		 * @return the number of productive executions
+		 */
+		public long getProductiveInvocations() {
+			return this.productiveInvocations;
+		}
+		
+		/**
+		 * Returns the number of executions which did not change the field
+		 * @return the number of wasted executions
+		 */
+		public long getWastedInvocations() {
+			return this.invocations - this.productiveInvocations;
+		}
+		
+		/**
+		 * Returns the elapsed time of all executions
+		 * @return the elapsed time in nanoseconds
+		 */
+		public long getTime() {
+			return this.time;
+		}
+		
+		/**
+		 * Returns the number of candidates removed by the strategy
+		 * @return the number of eliminated candidates
+		 */
+		public long getEliminatedCandidates() {
+			return this.eliminatedCandidates;
+		}
+		
+		/**
+		 * Returns the number of cells solved by the strategy, including the singles of the propagation
+		 * @return the number of solved cells
+		 */
+		public long getSolvedCells() {
+			return this.solvedCells;
+		}
+		
+		/**
+		 * Adds the counters of the given statistics
+		 * @param other the statistics to add
+		 */
+		private void add(StrategyStatistics other) {
+			this.invocations += other.invocations;
+			this.productiveInvocations += other.productiveInvocations;
+			this.time += other.time;
+			this.eliminatedCandidates += other.eliminatedCandidates;
+			this.solvedCells += other.solvedCells;
+		}
+		
+		/**
+		 * Returns the counters as string
+		 * @return the counters as string
+		 */
+		@Override
+		public String toString() {
+			return String.format("%s: %d calls (%d productive, %d wasted), %.2f ms, %d candidates eliminated, %d cells solved", 
+					this.strategy.getClass().getSimpleName(), this.invocations, this.productiveInvocations, this.getWastedInvocations(), 
+					this.time / 1e6, this.eliminatedCandidates, this.solvedCells);
+		}
+		
+	}
+	
+	private final Map<SolverStrategy, StrategyStatistics> strategyStatistics = new LinkedHashMap<SolverStrategy, StrategyStatistics>();
+	private long propagations;
+	private long propagationTime;
+	private long backtrackingNodes;
+	private long stateClones;
+	private int maxRecursionDepth;
+	
+	/**
+	 * Initialises a new instance of the {@link SolverStatistics} class without any counts
+	 */
+	public SolverStatistics() {
+	}
+	
+	/**
+	 * Initialises a new instance of the {@link SolverStatistics} class as a copy of the given statistics
+	 * @param other the statistics to copy
+	 * @throws IllegalArgumentException if the given statistics are <code>null</code>
+	 */
+	public SolverStatistics(SolverStatistics other) throws IllegalArgumentException {
+		this.add(other);
+	}
+	
+	/**
+	 * Returns the counters of all executed strategies in the order of their first execution
+	 * @return the counters of the strategies
+	 */
+	public synchronized List<StrategyStatistics> getStrategyStatistics() {
+		return new ArrayList<StrategyStatistics>(this.strategyStatistics.values());
+	}
+	
+	/**
+	 * Returns the counters of the given strategy
+	 * @param strategy the strategy
+	 * @return the counters of the strategy, <code>null</code> if the strategy was not executed
+	 */
+	public synchronized StrategyStatistics getStrategyStatistics(SolverStrategy strategy) {
+		return this.strategyStatistics.get(strategy);
+	}
+	
+	/**
+	 * Returns the number of propagations of singles
+	 * @return the number of propagations
+	 */
+	public synchronized long getPropagations() {
+		return this.propagations;
+	}
+	
+	/**
+	 * Returns the elapsed time of all propagations of singles
+	 * @return the elapsed time in nanoseconds
+	 */
+	public synchronized long getPropagationTime() {
+		return this.propagationTime;
+	}
+	
+	/**
+	 * Returns the number of candidates analysed by backtracking
+	 * @return the number of backtracking nodes
+	 */
+	public synchronized long getBacktrackingNodes() {
+		return this.backtrackingNodes;
+	}
+	
+	/**
+	 * Returns the number of copied {@link SolverState}s
+	 * @return the number of copied states
+	 */
+	public synchronized long getStateClones() {
+		return this.stateClones;
+	}
+	
+	/**
+	 * Returns the maximum number of nested backtracking candidates
+	 * @return the maximum recursion depth
+	 */
+	public synchronized int getMaxRecursionDepth() {
+		return this.maxRecursionDepth;
+	}
+	
+	/**
+	 * Adds the counters of the given statistics, used to aggregate the statistics of several executions
+	 * @param other the statistics to add
+	 * @throws IllegalArgumentException if the given statistics are <code>null</code>
+	 */
+	public void add(SolverStatistics other) throws IllegalArgumentException {
+		
+		if (other == null) {
+			throw new IllegalArgumentException("given statistics cannot be null.");
+		}
+		
+		//copy the other statistics first, so both are never locked at the same time
+		SolverStatistics copy;
+		synchronized (other) {
+			copy = new SolverStatistics();
+			for (StrategyStatistics statistics : other.strategyStatistics.values()) {
+				copy.getOrCreate(statistics.strategy).add(statistics);
+			}
+			copy.propagations = other.propagations;
+			copy.propagationTime = other.propagationTime;
+			copy.backtrackingNodes = other.backtrackingNodes;
+			copy.stateClones = other.stateClones;
+			copy.maxRecursionDepth = other.maxRecursionDepth;
+		}
+		
+		synchronized (this) {
+			for (StrategyStatistics statistics : copy.strategyStatistics.values()) {
+				this.getOrCreate(statistics.strategy).add(statistics);
+			}
+			this.propagations += copy.propagations;
+			this.propagationTime += copy.propagationTime;
+			this.backtrackingNodes += copy.backtrackingNodes;
+			this.stateClones += copy.stateClones;
+			this.maxRecursionDepth = Math.max(this.maxRecursionDepth, copy.maxRecursionDepth);
+		}
+		
+	}
+	
+	/**
+	 * Records an execution of a strategy
+	 * @param strategy the executed strategy
+	 * @param time the elapsed time in nanoseconds
+	 * @param eliminatedCandidates the number of removed candidates
+	 * @param solvedCells the number of solved cells
+	 * @param productive <code>true</code> if the execution changed the field, <code>false</code> otherwise
+	 */
+	synchronized void recordStrategy(SolverStrategy strategy, long time, int eliminatedCandidates, int solvedCells, boolean productive) {
+		
+		StrategyStatistics statistics = this.getOrCreate(strategy);
+		statistics.invocations++;
+		if (productive) statistics.productiveInvocations++;
+		statistics.time += time;
+		statistics.eliminatedCandidates += eliminatedCandidates;
+		statistics.solvedCells += solvedCells;
+		
+	}
+	
+	/**
+	 * Records a propagation of singles
+	 * @param time the elapsed time in nanoseconds
+	 * @param solvingStrategies the strategies the solved cells were accounted to, one entry per cell
+	 */
+	synchronized void recordPropagation(long time, List<SolverStrategy> solvingStrategies) {
+		
+		this.propagations++;
+		this.propagationTime += time;
+		for (SolverStrategy strategy : solvingStrategies) {
+			this.getOrCreate(strategy).solvedCells++;
+		}
+		
+	}
+	
+	/**
+	 * Records an analysed backtracking candidate
+	 * @param depth the number of backtracking candidates the analysed one is nested in
+	 */
+	synchronized void recordBacktrackingNode(int depth) {
+		this.backtrackingNodes++;
+		this.maxRecursionDepth = Math.max(this.maxRecursionDepth, depth + 1);
+	}
+	
+	/**
+	 * Records a copied {@link SolverState}
+	 */
+	synchronized void recordStateClone() {
+		this.stateClones++;
+	}
+	
+	/**
+	 * Returns the counters of the given strategy and creates them if necessary
+	 * @param strategy the strategy
+	 * @return the counters of the strategy
+	 */
+	private StrategyStatistics getOrCreate(SolverStrategy strategy) {
+		
+		StrategyStatistics statistics = this.strategyStatistics.get(strategy);
+		if (statistics == null) {
+			statistics = new StrategyStatistics(strategy);
+			this.strategyStatistics.put(strategy, statistics);
+		}
+		return statistics;
+		
+	}
+	
+	/**
+	 * Returns all counters as string, one line per strategy
+	 * @return the counters as string
+	 */
+	@Override
+	public synchronized String toString() {
+		
+		StringBuilder result = new StringBuilder();
+		for (StrategyStatistics statistics : this.strategyStatistics.values()) {
+			result.append(statistics.toString()).append('\n');
+		}
+		result.append(String.format("%d propagations, %.2f ms, %d backtracking nodes, %d state clones, max depth %d", 
+				this.propagations, this.propagationTime / 1e6, this.backtrackingNodes, this.stateClones, this.maxRecursionDepth));
+		return result.toString();
+		
+	}
+	
+}
@@ -45,6 +45,8 @@
 package org.sudowars.Model.Solver;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -94,6 +96,39 @@ public abstract class SolverStrategy implements Serializable {
 	 */
 	public abstract List<SolveStep> executeStrategy(SolverState currentState) throws NotSolvableException, IllegalArgumentException;
 	
+	/**
+	 * Executes the strategy on the given groups of the current state, the other groups were not changed since 
+	 * the last execution. Strategies which do not work on single groups execute the strategy on the whole field.
+	 * @param currentState The current solution state
+	 * @param groupIds The ids of the groups to execute the strategy on
+	 * @return List of SolveSteps calculated by the strategy
+	 * @throws NotSolvableException if the strategy detects that the current field is not solvable
+	 * @throws IllegalArgumentException if the given state or the given group ids are <code>null</code>
+	 */
+	public List<SolveStep> executeStrategy(SolverState currentState, BitSet groupIds) throws NotSolvableException, IllegalArgumentException {
+		
+		if (groupIds == null) {
+			throw new IllegalArgumentException("given group ids cannot be null.");
+		}
+		
+		return this.executeStrategy(currentState);
+		
+	}
+	
+	/**
+	 * Returns the ids of all groups of the state
+	 * @param currentState The current solution state
+	 * @return the ids of all groups
+	 */
+	protected static BitSet getAllGroupIds(SolverState currentState) {
+		
+		int groupCount = currentState.getDependencyManager().getDependencyGroups().size();
+		BitSet groupIds = new BitSet(groupCount);
+		groupIds.set(0, groupCount);
+		return groupIds;
+		
+	}
+	
 	/**
 	 * Deletes the cell value from all candidate lists of cells that are in the same DependencyGroup.
 	 * @param solvedCell The cell that holds the solutionValue
@@ -103,18 +138,13 @@ public abstract class SolverStrategy implements Serializable {
 	 */
 	protected Boolean removeValueFromNeighbourNotes(Cell solvedCell, int solutionValue, SolverState currentState) {
 		
-		Boolean result = false;
+		boolean result = false;
+		CandidateGrid candidates = currentState.getCandidates();
 		
-		for (DependencyGroup dependencyGroup : currentState.getDependencyManager().getDependencyGroupsOfCell(solvedCell)) {
-			
-			for (Cell neighbourCell : dependencyGroup.getCells(currentState.getField())) {
-				if (!neighbourCell.equals(solvedCell)) {
-					if (currentState.getNoteManager().removeNote(neighbourCell, solutionValue)) {
-						result = true;
-					}
-				}
+		for (int neighbourIndex : currentState.getDependencyManager().getPeersOfCell(solvedCell.getIndex())) {
+			if (candidates.removeCandidate(neighbourIndex, solutionValue)) {
+				result = true;
 			}
-			
 		}
 		
 		return result;
@@ -122,48 +152,42 @@ public abstract class SolverStrategy implements Serializable {
 	}
 	
 	/**
-	 * Returns a list of all used candidates in a {@link DependencyGroup}
+	 * Returns the mask of all used candidates in a {@link DependencyGroup}
 	 * @param dependencyGroup The {@link DependencyGroup} to search the candidates
 	 * @param currentState The current solution state of the {@link Sudoku}
-	 * @return List of the candidates
+	 * @return mask of the candidates
 	 */
-	protected List<Integer> getCandidateList(DependencyGroup dependencyGroup, SolverState currentState) {
+	protected int getCandidateMask(DependencyGroup dependencyGroup, SolverState currentState) {
 		
-		List<Integer> candidateList = new LinkedList<Integer>();
+		int candidateMask = 0;
+		CandidateGrid candidates = currentState.getCandidates();
 		
 		//iterate through all cells of the group and save the candidates
 		for (Cell cell : dependencyGroup.getCells(currentState.getField())) {
 			if (cell.isSet()) continue;
-			List<Integer> candidates = currentState.getNoteManager().getNotes(cell);
-			for (Integer candidate : candidates) {
-				if (!candidateList.contains(candidate)) {
-					candidateList.add(candidate);
-				}
-			}
+			candidateMask |= candidates.getMask(cell.getIndex());
 		}
 		
-		return candidateList;
+		return candidateMask;
 		
 	}
 	
 	/**
-	 * Returns a list of all used candidates all over the field
+	 * Returns the mask of all used candidates all over the field
 	 * @param currentState The current solution state of the {@link Sudoku}
-	 * @return List of the candidates
+	 * @return mask of the candidates
 	 */
-	protected List<Integer> getCandidateList(SolverState currentState) {
+	protected int getCandidateMask(SolverState currentState) {
 		
-		List<Integer> candidateList = new LinkedList<Integer>();
+		int candidateMask = 0;
+		CandidateGrid candidates = currentState.getCandidates();
 		
-		for (DependencyGroup dependencyGroup : currentState.getDependencyManager().getDependencyGroups()) {
-			for (Integer candidate : this.getCandidateList(dependencyGroup, currentState)) {
-				if (!candidateList.contains(candidate)) {
-					candidateList.add(candidate);
-				}
-			}
+		for (Cell cell : currentState.getField().getCells()) {
+			if (cell.isSet()) continue;
+			candidateMask |= candidates.getMask(cell.getIndex());
 		}
 		
-		return candidateList;
+		return candidateMask;
 		
 	}
 	
@@ -176,13 +200,14 @@ public abstract class SolverStrategy implements Serializable {
 	 */
 	protected List<Cell> getCandidateCells(int value, DependencyGroup dependencyGroup, SolverState currentState) {
 		
-		List<Cell> cellList = new LinkedList<Cell>();
+		List<Cell> cellList = new ArrayList<Cell>();
+		int valueMask = CandidateGrid.getValueMask(value);
+		CandidateGrid candidates = currentState.getCandidates();
 		
 		//iterate through all cells of the group and check if they use the value in their candidate list
 		for (Cell cell : dependencyGroup.getCells(currentState.getField())) {
-			if (currentState.getNoteManager().hasNote(cell, value)) {
+			if ((candidates.getMask(cell.getIndex()) & valueMask) != 0) {
 				cellList.add(cell);
-				continue;
 			}
 		}
 		
@@ -194,15 +219,15 @@ public abstract class SolverStrategy implements Serializable {
 	 * Returns all {@link Cell}s of a {@link DependencyGroup} that are not set or already solved
 	 * @param currentState The current solution state
 	 * @param dependencyGroup The {@link DependencyGroup} of the {@link Cell}s
-	 * @param solvedCells list of cells already solved by the strategy
+	 * @param solvedCells flags of the cells already solved by the strategy, indexed by the cell index
 	 * @return List of all {@link Cell}s that are not set
 	 */
-	protected List<Cell> getUnsetCells(SolverState currentState, DependencyGroup dependencyGroup, List<Cell> solvedCells) {
+	protected List<Cell> getUnsetCells(SolverState currentState, DependencyGroup dependencyGroup, boolean[] solvedCells) {
 		
-		List<Cell> result = new LinkedList<Cell>();
+		List<Cell> result = new ArrayList<Cell>();
 		
 		for (Cell groupCell : dependencyGroup.getCells(currentState.getField())) {
-			if (groupCell.isSet() || solvedCells.contains(groupCell)) continue;
+			if (groupCell.isSet() || (solvedCells != null && solvedCells[groupCell.getIndex()])) continue;
 			result.add(groupCell);
 		}
 		
@@ -218,97 +243,82 @@ public abstract class SolverStrategy implements Serializable {
 	 */
 	protected List<Cell> getUnsetCells(SolverState currentState, DependencyGroup dependencyGroup) {
 		
-		return this.getUnsetCells(currentState, dependencyGroup, new LinkedList<Cell>());
+		return this.getUnsetCells(currentState, dependencyGroup, null);
 		
 	}
 	
 	/**
-	 * Clones the list
-	 * @param listToClone list to clone
-	 * @return the cloned list
+	 * Checks if the mask is a subset of the given set
+	 * @param subset the mask to check
+	 * @param set the mask of the set
+	 * @return <code>true</code> if the set contains all elements of the subset, <code>false</code> otherwise 
 	 */
-	protected List<Integer> cloneList(List<Integer> listToClone) {
+	protected static boolean isSubset(int subset, int set) {
 		
-		List<Integer> resultList = new LinkedList<Integer>();
-		for (int listValue : listToClone) {
-			resultList.add(listValue);
-		}
-		return resultList;
+		return (subset & ~set) == 0;
 		
 	}
 	
 	/**
-	 * Checks if the list is a subset of the given set
-	 * @param subset the list to check
-	 * @param set the set
-	 * @return <code>true</code> if the set contains all elements of the subset, <code>false</code> otherwise 
+	 * Searches combinations of <code>n</code> masks whose union holds exactly <code>n</code> bits, with 
+	 * <code>minSize &lt;= n &lt;= maxSize</code>. Masks with more than <code>maxSize</code> bits can not be part of 
+	 * such a combination and are skipped. The combinations are not extended after a match.
+	 * @param masks the masks to combine, at most 32
+	 * @param minSize the minimum number of combined masks
+	 * @param maxSize the maximum number of combined masks
+	 * @return the found cliques, each as array of the combined masks (bit <code>i</code> marks <code>masks[i]</code>) and their union
 	 */
-	protected Boolean isSubset(List<Integer> subset, List<Integer> set) {
+	protected static List<int[]> findCliques(int[] masks, int minSize, int maxSize) {
 		
-		Boolean isSubset = true;
-		
-		for (int value : subset) {
-			if (!set.contains(value)) {
-				isSubset = false;
-				break;
-			}
-		}
-		
-		return isSubset;
+		List<int[]> cliques = new LinkedList<int[]>();
+		findCliques(masks, minSize, maxSize, 0, 0, 0, 0, cliques);
+		return cliques;
 		
 	}
 	
 	/**
-	 * Returns all subsets of the given set.
-	 * @param set the set to build the subsets
-	 * @return all subsets of the given set
+	 * Extends the given combination by the masks starting at the given position
+	 * @param masks the masks to combine
+	 * @param minSize the minimum number of combined masks
+	 * @param maxSize the maximum number of combined masks
+	 * @param start position of the first mask to add
+	 * @param combination the combined masks, bit <code>i</code> marks <code>masks[i]</code>
+	 * @param union the union of the combined masks
+	 * @param size the number of combined masks
+	 * @param cliques the list to add the found cliques to
 	 */
-	protected List<List<Integer>> getSubsets(List<Integer> set) {
+	private static void findCliques(int[] masks, int minSize, int maxSize, int start, int combination, int union, int size, List<int[]> cliques) {
 		
-		List<List<Integer>> result = new LinkedList<List<Integer>>();
-		
-		if (set.size() > 0) {
+		for (int i = start; i < masks.length; i++) {
 			
-			List<Integer> newCandidates = this.cloneList(set);
-			int currentElement = newCandidates.get(0);
-			newCandidates.remove(0);
-
-			result = getSubsets(newCandidates);
-			List<List<Integer>> subsetsWithElement = new LinkedList<List<Integer>>();
+			//skip empty masks and masks which exceed the maximum size of the union
+			int extendedUnion = union | masks[i];
+			int unionSize = Integer.bitCount(extendedUnion);
+			if (masks[i] == 0 || unionSize > maxSize) continue;
 			
-			for (List<Integer> subset : result) {
-				
-				List<Integer> newSubset = this.cloneList(subset);
-				newSubset.add(currentElement);
-				subsetsWithElement.add(newSubset);
-				
+			int extendedCombination = combination | (1 << i);
+			if (size + 1 >= minSize && unionSize == size + 1) {
+				cliques.add(new int[] {extendedCombination, extendedUnion});
+			} else if (size + 1 < maxSize) {
+				findCliques(masks, minSize, maxSize, i + 1, extendedCombination, extendedUnion, size + 1, cliques);
 			}
 			
-			result.addAll(subsetsWithElement);
-			
-		} else {
-			
-			result.add(set);
-			
-		}	
-		
-		return result;
+		}
 		
 	}
 	
 	/**
-	 * Returns all subsets of a set from <code>zero</code> to the given value
-	 * @param maxValue the maximum value
-	 * @return all subsets of a set from <code>zero</code> to the given value
+	 * Checks if the array contains the value
+	 * @param array the array to search
+	 * @param value the value to find
+	 * @return <code>true</code> if the array contains the value, <code>false</code> otherwise
 	 */
-	protected List<List<Integer>> getSubsets(int maxValue) {
-		
-		//create set
-		List<Integer> set = new LinkedList<Integer>();
-		for (int i = 0; i <= maxValue; i++) set.add(i);
+	private static boolean contains(int[] array, int value) {
 		
-		//return subsets
-		return this.getSubsets(set);
+		for (int element : array) {
+			if (element == value) return true;
+		}
+		return false;
 		
 	}
 	
@@ -326,29 +336,24 @@ public abstract class SolverStrategy implements Serializable {
 		
 			//initialise possible groups by analysing the first cell of the list
 			Cell firstCell = cellList.get(0);
-			List<DependencyGroup> possibleGroups = dependencyManager.getDependencyGroupsOfCell(firstCell);
+			int[] possibleGroups = dependencyManager.getGroupIdsOfCell(firstCell.getIndex());
 			
-			//check if the other cells also located in one of the possible groups
-			for (Cell cell : cellList) {
-				if (!cell.equals(firstCell)) {
-					//load groups of cell and initiate reduced group list to save further possible groups
-					List<DependencyGroup> cellGroups = dependencyManager.getDependencyGroupsOfCell(cell);
-					List<DependencyGroup> possibleGroupsReduced = new LinkedList<DependencyGroup>();
-					//check if the cell's groups are within the currently possible groups 
-					for (DependencyGroup possibleGroup : possibleGroups) {
-						if (cellGroups.contains(possibleGroup)) {
-							possibleGroupsReduced.add(possibleGroup);
-						}
+			//check for every possible group if the other cells are also located in it
+			for (int possibleGroup : possibleGroups) {
+				boolean commonGroup = true;
+				for (Cell cell : cellList) {
+					if (!cell.equals(firstCell) && !contains(dependencyManager.getGroupIdsOfCell(cell.getIndex()), possibleGroup)) {
+						commonGroup = false;
+						break;
 					}
-					//save the reduced group list
-					possibleGroups = possibleGroupsReduced;
-					if (possibleGroups.size() == 0) break;
+				}
+				
+				//add the common group to result list
+				if (commonGroup) {
+					resultList.add(dependencyManager.getDependencyGroup(possibleGroup));
 				}
 			}
 			
-			//add the common group to result list
-			resultList.addAll(possibleGroups);
-			
 		}
 		
 		return resultList;
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Solver;
+
+import org.sudowars.Model.Sudoku.Field.Cell;
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.Field;
+
+/**
+ * This class records the changes of a {@link SolverState} on a primitive undo stack, so the 
+ * {@link StrategyExecutor} can roll back a failed backtracking branch instead of cloning the 
+ * complete state for every analysed candidate. 
+ * 
+ * Every entry holds the index of the changed cell and its old candidate mask or its old value. 
+ * The cell index of a value entry is stored as <code>-(index + 1)</code>.
+ */
+final class SolverTrail {
+	
+	private int[] indices;
+	private int[] oldValues;
+	private int size;
+	
+	/**
+	 * Initialises a new instance of the {@link SolverTrail} class
+	 * @param capacity the initial number of entries
+	 */
+	SolverTrail(int capacity) {
+		this.indices = new int[Math.max(capacity, 16)];
+		this.oldValues = new int[this.indices.length];
+		this.size = 0;
+	}
+	
+	/**
+	 * Returns the number of recorded changes, used as mark to roll back to
+	 * @return the number of recorded changes
+	 */
+	int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Records the old candidate mask of a cell
+	 * @param cellIndex index of the cell
+	 * @param oldMask the mask before the change
+	 */
+	void recordCandidates(int cellIndex, int oldMask) {
+		this.push(cellIndex, oldMask);
+	}
+	
+	/**
+	 * Records the old value of a cell
+	 * @param cellIndex index of the cell
+	 * @param oldValue the value before the change
+	 */
+	void recordValue(int cellIndex, int oldValue) {
+		this.push(-(cellIndex + 1), oldValue);
+	}
+	
+	/**
+	 * Restores all changes recorded after the given mark
+	 * @param mark the size of the trail to roll back to
+	 * @param field the field whose values are restored
+	 * @param candidates the grid whose masks are restored
+	 * @param listener the listener to notify about every restored cell, <code>null</code> if no listener has to be notified
+	 */
+	void rollback(int mark, Field<Cell> field, CandidateGrid candidates, CellChangeListener listener) {
+		
+		while (this.size > mark) {
+			this.size--;
+			int index = this.indices[this.size];
+			if (index >= 0) {
+				candidates.restoreMask(index, this.oldValues[this.size]);
+			} else {
+				index = -index - 1;
+				((DataCell) field.getCell(index)).setValue(this.oldValues[this.size]);
+			}
+			if (listener != null) {
+				listener.cellChanged(index);
+			}
+		}
+		
+	}
+	
+	/**
+	 * Pushes an entry on the stack and grows the arrays if necessary
+	 * @param index the encoded index
+	 * @param oldValue the old mask or value
+	 */
+	private void push(int index, int oldValue) {
+		
+		if (this.size == this.indices.length) {
+			int[] newIndices = new int[this.size * 2];
+			int[] newOldValues = new int[this.size * 2];
+			System.arraycopy(this.indices, 0, newIndices, 0, this.size);
+			System.arraycopy(this.oldValues, 0, newOldValues, 0, this.size);
+			this.indices = newIndices;
+			this.oldValues = newOldValues;
+		}
+		
+		this.indices[this.size] = index;
+		this.oldValues[this.size] = oldValue;
+		this.size++;
+		
+	}
+	
+}
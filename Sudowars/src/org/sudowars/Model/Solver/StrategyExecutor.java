@@ -44,12 +44,21 @@
  ******************************************************************************/
 package org.sudowars.Model.Solver;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.sudowars.DebugHelper;
 import org.sudowars.Model.Sudoku.Field.Cell;
-import org.sudowars.Model.SudokuUtil.NoteManager;
+import org.sudowars.Model.Sudoku.RuleManagement.RuleApplier.StandardRulesetFactory;
 
 /**
  * The class defines the functionality to execute the given strategies to solve a {@link Sudoku}
@@ -62,6 +71,18 @@ public abstract class StrategyExecutor {
 	
 	protected List<SolverStrategy> solveStrategies;
 	protected List<SolverStrategy> usedStrategies = new LinkedList<SolverStrategy>();
+	
+	//number of threads analysing the candidates of the first backtracking cell
+	private int parallelism = 1;
+	
+	//solve the singles through the work queue of the state instead of the strategy list
+	private boolean propagateSingles = true;
+	
+	//execute the strategies on the groups changed since their last execution only
+	private boolean trackDirtyGroups = true;
+	
+	//profiling counters, null if no statistics are collected
+	private SolverStatistics statistics;
 		
 	/**
 	 * Returns the defined list of {@link SolverStrategy}.
@@ -79,11 +100,134 @@ public abstract class StrategyExecutor {
 		return this.usedStrategies;
 	}
 	
+	/**
+	 * Returns the number of threads used to analyse the candidates of a backtracking cell.
+	 * @return the degree of parallelism, <code>1</code> if the candidates are analysed one after another
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+	
+	/**
+	 * Sets the number of threads used to analyse the candidates of a backtracking cell. If it is greater 
+	 * than one, the candidates of the first backtracking cell are analysed concurrently on copies of the 
+	 * state and the remaining branches are stopped as soon as multiple solutions were found. As all 
+	 * candidates are analysed, the used strategies can differ from the sequential execution.
+	 * @param parallelism the degree of parallelism
+	 * @throws IllegalArgumentException if the given parallelism is smaller than one
+	 */
+	public void setParallelism(int parallelism) throws IllegalArgumentException {
+		
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("given parallelism has to be greater than zero");
+		}
+		
+		this.parallelism = parallelism;
+		
+	}
+	
+	/**
+	 * Indicates if naked and hidden singles are propagated through a work queue.
+	 * @return <code>true</code> if the singles are propagated, <code>false</code> if they are searched by the strategy list
+	 */
+	public boolean isPropagatingSingles() {
+		return this.propagateSingles;
+	}
+	
+	/**
+	 * Sets if naked and hidden singles are propagated through a work queue while solving all cells of a 
+	 * standard ruleset. The propagation only handles the changed cells and groups, the heavier strategies 
+	 * are executed if no single is left. Every solved cell is accounted to the single strategy which solved 
+	 * it, so the used strategies differ from the execution of the strategy list.
+	 * @param propagateSingles <code>true</code> to propagate the singles, <code>false</code> to search them by the strategy list
+	 */
+	public void setPropagatingSingles(boolean propagateSingles) {
+		this.propagateSingles = propagateSingles;
+	}
+	
+	/**
+	 * Indicates if the strategies are executed on the changed groups only.
+	 * @return <code>true</code> if the changed groups are tracked, <code>false</code> if the strategies are executed on all groups
+	 */
+	public boolean isTrackingDirtyGroups() {
+		return this.trackDirtyGroups;
+	}
+	
+	/**
+	 * Sets if the strategies are executed on the groups changed since their last execution only while 
+	 * solving all cells. A strategy without changed groups is skipped. As the unchanged groups do not 
+	 * report the same solve steps again, the used strategies differ from the execution on all groups.
+	 * @param trackDirtyGroups <code>true</code> to track the changed groups, <code>false</code> to execute the strategies on all groups
+	 */
+	public void setTrackingDirtyGroups(boolean trackDirtyGroups) {
+		this.trackDirtyGroups = trackDirtyGroups;
+	}
+	
+	/**
+	 * Indicates if profiling statistics are collected.
+	 * @return <code>true</code> if statistics are collected, <code>false</code> otherwise
+	 */
+	public boolean isCollectingStatistics() {
+		return this.statistics != null;
+	}
+	
+	/**
+	 * Sets if profiling statistics are collected. The statistics of all executions are summed up until 
+	 * the collection is stopped or the statistics are reset. The collection is stopped by default.
+	 * @param collectingStatistics <code>true</code> to collect statistics, <code>false</code> to stop the collection and drop the statistics
+	 */
+	public void setCollectingStatistics(boolean collectingStatistics) {
+		
+		if (!collectingStatistics) {
+			this.statistics = null;
+		} else if (this.statistics == null) {
+			this.statistics = new SolverStatistics();
+		}
+		
+	}
+	
+	/**
+	 * Returns a copy of the profiling statistics collected since the collection was started or reset.
+	 * @return the collected statistics, <code>null</code> if no statistics are collected
+	 */
+	public SolverStatistics getStatistics() {
+		
+		SolverStatistics currentStatistics = this.statistics;
+		return (currentStatistics == null) ? null : new SolverStatistics(currentStatistics);
+		
+	}
+	
+	/**
+	 * Resets the profiling statistics if they are collected.
+	 */
+	public void resetStatistics() {
+		
+		if (this.statistics != null) {
+			this.statistics = new SolverStatistics();
+		}
+		
+	}
+	
 	/**
 	 * Initialises the used strategies and adds them to the list by there priority.
 	 */
 	protected abstract void createStrategies();
 	
+	/**
+	 * Returns the first strategy of the strategy list which is an instance of the given class.
+	 * @param strategyClass the class of the strategy
+	 * @return the strategy, <code>null</code> if the strategy list does not contain such a strategy
+	 */
+	private SolverStrategy getSolveStrategy(Class<? extends SolverStrategy> strategyClass) {
+		
+		for (SolverStrategy strategy : this.solveStrategies) {
+			if (strategyClass.isInstance(strategy)) return strategy;
+		}
+		
+		return null;
+		
+	}
+	
 	/**
 	 * Saves the solution in the cell
 	 * @param currentState the current solution state
@@ -101,30 +245,107 @@ public abstract class StrategyExecutor {
 	 * @return ExecuteResult which represents the success or the failure occurred when executing the strategies
 	 */
 	protected ExecuteResult executeStrategies(SolverState currentState, boolean breakAfterFirstHit) {
+		return this.executeStrategies(currentState, breakAfterFirstHit, this.usedStrategies, null, 0);
+	}
+	
+	/**
+	 * Uses the given strategies to solve the field or rather reduce the candidate list. The 
+	 * result will be stored in the current state.
+	 * @param currentState the current solution state of the field
+	 * @param breakAfterFirstHit <code>true</code> stops the execution after the first found cell solution, <code>false</code> will try to solve all cells
+	 * @param usedStrategies the list to add the strategies to which changed the field
+	 * @param cancelled flag of the concurrently analysed branch, <code>null</code> if the execution does not run within a branch
+	 * @param depth the number of backtracking candidates the execution is nested in
+	 * @return ExecuteResult which represents the success or the failure occurred when executing the strategies
+	 */
+	private ExecuteResult executeStrategies(SolverState currentState, boolean breakAfterFirstHit, List<SolverStrategy> usedStrategies, AtomicBoolean cancelled, int depth) {
 		
 		//initiate result
 		ExecuteResult result = null;
 		
+		//the statistics are read once, so a concurrent change of the collection does not affect the execution
+		SolverStatistics statistics = this.statistics;
+		
+		//the messages of the strategy loop are only built if they are logged
+		boolean logging = DebugHelper.isLogging(DebugHelper.PackageName.Solver);
+		
 		//initiate control parameters		
 		boolean loopStrategyListAgain = false;
 		
+		//singles are propagated through a work queue if all cells are solved anyway, the strategies 
+		//the solved cells are accounted to are skipped in the strategy list
+		SolverStrategy nakedSingleStrategy = null;
+		SolverStrategy hiddenSingleStrategy = null;
+		if (this.propagateSingles && !breakAfterFirstHit && StandardRulesetFactory.getInstance().isStandardRuleset(currentState.getDependencyManager())) {
+			nakedSingleStrategy = this.getSolveStrategy(NakedSingleStrategy.class);
+			hiddenSingleStrategy = this.getSolveStrategy(HiddenSingleStrategy.class);
+		}
+		boolean propagateSingles = (nakedSingleStrategy != null && hiddenSingleStrategy != null);
+		
 		do {
 			
 			loopStrategyListAgain = false;
 			
+			//a cancelled branch does not need a result, it is ignored anyway
+			if (cancelled != null && cancelled.get()) {
+				return ExecuteResult.NOSOLUTION;
+			}
+			
+			if (propagateSingles) {
+				
+				long startTime = (statistics != null) ? System.nanoTime() : 0;
+				int usedStrategyCount = usedStrategies.size();
+				
+				try {
+					currentState.propagateSingles(nakedSingleStrategy, hiddenSingleStrategy, usedStrategies);
+				} catch (NotSolvableException ex) {
+					result = ExecuteResult.NOSOLUTION;
+					break;
+				} finally {
+					if (statistics != null) {
+						statistics.recordPropagation(System.nanoTime() - startTime, usedStrategies.subList(usedStrategyCount, usedStrategies.size()));
+					}
+				}
+				
+				//the heavier strategies are not needed if the singles solved the field
+				if (currentState.getField().isFilled()) {
+					result = ExecuteResult.UNIQUESOLUTION;
+					DebugHelper.log(DebugHelper.PackageName.Solver, "propagation finished, field is unique solvable");
+					break;
+				}
+				
+			}
+			
 			//iterate through strategy list
 			for (SolverStrategy strategy : this.solveStrategies) {
 				
+				//the singles were propagated already
+				if (propagateSingles && (strategy == nakedSingleStrategy || strategy == hiddenSingleStrategy)) continue;
+				
+				//if all cells are solved anyway the strategy only needs to rescan the groups changed since its last execution
+				BitSet dirtyGroups = (this.trackDirtyGroups && !breakAfterFirstHit) ? currentState.pollDirtyGroups(strategy) : null;
+				if (dirtyGroups != null && dirtyGroups.isEmpty()) continue;
+				
+				long startTime = 0;
+				int candidateCount = 0;
+				if (statistics != null) {
+					startTime = System.nanoTime();
+					candidateCount = currentState.getCandidates().getCandidateCount();
+				}
+				boolean changedField = false;
+				int solvedCells = 0;
+				
 				try {
 					
 					//execute strategy
-					List<SolveStep> strategyResults = strategy.executeStrategy(currentState);
+					List<SolveStep> strategyResults = (dirtyGroups == null) ? strategy.executeStrategy(currentState) : strategy.executeStrategy(currentState, dirtyGroups);
 					
 					//log debug info
-					DebugHelper.log(DebugHelper.PackageName.Solver, "strategy \"" + strategy.toString() + "\" executed, generated " + strategyResults.size() + " solve steps");
+					if (logging) {
+						DebugHelper.log(DebugHelper.PackageName.Solver, "strategy \"" + strategy.toString() + "\" executed, generated " + strategyResults.size() + " solve steps");
+					}
 					
 					//save strategy solutions
-					boolean changedField = false;
 					for (SolveStep solveStep : strategyResults) {
 						
 						//check if the field was changed by the strategy
@@ -133,11 +354,13 @@ public abstract class StrategyExecutor {
 						//save strategies which changed the field
 						if (changedField) {
 							
-							this.usedStrategies.add(strategy);
+							usedStrategies.add(strategy);
 							
-							DebugHelper.log(DebugHelper.PackageName.Solver, "--- " + 
-									(solveStep.hasSolvedCell() ? "cell #" + solveStep.getSolvedCell().getIndex() + " solved: " + solveStep.getSolution() : "no cell solved") + ", " +
-									(solveStep.hasChangedNotes() ? "candidates changed" : "candidates NOT changed"));
+							if (logging) {
+								DebugHelper.log(DebugHelper.PackageName.Solver, "--- " + 
+										(solveStep.hasSolvedCell() ? "cell #" + solveStep.getSolvedCell().getIndex() + " solved: " + solveStep.getSolution() : "no cell solved") + ", " +
+										(solveStep.hasChangedNotes() ? "candidates changed" : "candidates NOT changed"));
+							}
 							
 						}
 						
@@ -147,6 +370,7 @@ public abstract class StrategyExecutor {
 							currentState.setLastSolveStep(solveStep);
 							//save solution							
 							this.saveCell(currentState, solveStep.getSolvedCell().getIndex(), solveStep.getSolution());
+							solvedCells++;
 							//break if parameter is set	
 							//TODO find better solution
 							if (breakAfterFirstHit) return ExecuteResult.UNIQUESOLUTION;
@@ -175,6 +399,13 @@ public abstract class StrategyExecutor {
 					loopStrategyListAgain = false;
 					break;
 					
+				} finally {
+					
+					if (statistics != null) {
+						statistics.recordStrategy(strategy, System.nanoTime() - startTime, 
+								candidateCount - currentState.getCandidates().getCandidateCount(), solvedCells, changedField);
+					}
+					
 				}
 				
 			}
@@ -185,11 +416,11 @@ public abstract class StrategyExecutor {
 				DebugHelper.log(DebugHelper.PackageName.Solver, "start backtracking");
 				
 				//search cell with the fewest candidates
-				NoteManager notes = currentState.getNoteManager();
+				CandidateGrid candidates = currentState.getCandidates();
 				Cell nextCellToSolve = null;
 				for (Cell cell : currentState.getField().getCells()) {
 					if (cell.isSet()) continue;					
-					if (nextCellToSolve == null || notes.getNotes(cell).size() < notes.getNotes(nextCellToSolve).size()) {
+					if (nextCellToSolve == null || candidates.getCandidateCount(cell.getIndex()) < candidates.getCandidateCount(nextCellToSolve.getIndex())) {
 						nextCellToSolve = cell;
 					}
 				}
@@ -208,30 +439,42 @@ public abstract class StrategyExecutor {
 					result = ExecuteResult.NOSOLUTION;
 					DebugHelper.log(DebugHelper.PackageName.Solver, "no next cell to solve, field has no solution");
 					
+				} else if (this.parallelism > 1 && cancelled == null) {
+					
+					//analyse all candidates concurrently if the execution does not run within a branch already
+					result = this.executeBranches(currentState, nextCellToSolve.getIndex(), usedStrategies, depth);
+					loopStrategyListAgain = false;
+					
 				} else {
 				
 					//if there is only one candidate left it is the solution of the cell
 					//TODO implement check or assert use of NakedSingleStrategy?
-					assert (notes.getNotes(nextCellToSolve).size() >= 2);
+					assert (candidates.getCandidateCount(nextCellToSolve.getIndex()) >= 2);
 					assert (breakAfterFirstHit == false);
 									
 					//save the solution if one of the analysed candidates resulted in a unique solution
-					SolverState foundSolveState = null;
+					int[] foundSolution = null;
 					
 					//analyse the first two candidates, set the value and try to solve the field again
-					List<Integer> cellNotes = notes.getNotes(nextCellToSolve);
-					for (int candidate : cellNotes) {
+					int cellMask = candidates.getMask(nextCellToSolve.getIndex());
+					for (int remaining = cellMask; remaining != 0; remaining &= remaining - 1) {
+						int candidate = CandidateGrid.getLowestCandidate(remaining);
 						
-						//clone currentState
-						SolverState newState = currentState.clone();
-						Cell newNextCellToSolve = newState.getField().getCell(nextCellToSolve.getIndex());
+						//mark the current state, all changes of the branch are rolled back afterwards
+						int trailMark = currentState.markTrail();
+						if (statistics != null) statistics.recordBacktrackingNode(depth);
 						
 						//remove all notes except the currently analysed candidate, strategies handle to solve the cell
-						newState.getNoteManager().removeAllNotes(newNextCellToSolve);
-						newState.getNoteManager().addNote(newNextCellToSolve, candidate);
+						currentState.getCandidates().setMask(nextCellToSolve.getIndex(), CandidateGrid.getValueMask(candidate));
 						
 						//execute strategies with the set candidate
-						switch (this.executeStrategies(newState, breakAfterFirstHit)) {
+						ExecuteResult branchResult = this.executeStrategies(currentState, breakAfterFirstHit, usedStrategies, cancelled, depth + 1);
+						
+						//save the solution of the branch before it is rolled back
+						int[] branchSolution = (branchResult == ExecuteResult.UNIQUESOLUTION && foundSolution == null) ? currentState.getCellValues() : null;
+						currentState.rollback(trailMark);
+						
+						switch (branchResult) {
 						
 							case NOSOLUTION :
 							
@@ -240,21 +483,23 @@ public abstract class StrategyExecutor {
 								//next one have to be checked too to identify if it is a unique solution. It is
 								//more efficient to remove the candidate which can not be the solution and loop
 								//through the strategy list again.								
-								if (cellNotes.size() == 2 && foundSolveState != null) {
+								if (CandidateGrid.countCandidates(cellMask) == 2 && foundSolution != null) {
 									
-									DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": found no solution, other candidat is solution");
+									if (logging) {
+										DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": found no solution, other candidat is solution");
+									}
 									
-									currentState.setField(foundSolveState.getField());
-									currentState.setDependencyManager(foundSolveState.getDependencyManager());
-									currentState.setNoteManager(foundSolveState.getNoteManager());
+									currentState.fillCells(foundSolution);
 									
 									loopStrategyListAgain = true;
 									
 								} else {
 
-									DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": found no solution, remove candidate");
+									if (logging) {
+										DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": found no solution, remove candidate");
+									}
 									
-									currentState.getNoteManager().removeNote(nextCellToSolve, candidate);
+									currentState.getCandidates().removeCandidate(nextCellToSolve.getIndex(), candidate);
 									loopStrategyListAgain = true;
 									
 								}
@@ -266,19 +511,23 @@ public abstract class StrategyExecutor {
 								//all strategies necessary to found the solution were added to the used strategies list
 								//if more than one candidate leads to an unique solution the sudoku is multiple solvable
 								//and the execution can be interrupted.
-								if (foundSolveState != null) {
+								if (foundSolution != null) {
 								
-									DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": already found a valid candidate => multiple solution");
+									if (logging) {
+										DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": already found a valid candidate => multiple solution");
+									}
 									
 									loopStrategyListAgain = false;
 									result = ExecuteResult.MULTIPLESOLUTION;
 									
 								} else {
 									
-									DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": found unique solution, check next candidate");
+									if (logging) {
+										DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": found unique solution, check next candidate");
+									}
 									
 									//save the information that the candidate leads to an unique solution
-									foundSolveState = newState.clone();
+									foundSolution = branchSolution;
 									
 								}
 
@@ -286,7 +535,9 @@ public abstract class StrategyExecutor {
 								
 							case MULTIPLESOLUTION :
 								
-								DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": found multiple solution");
+								if (logging) {
+									DebugHelper.log(DebugHelper.PackageName.Solver, "Backtracking cell #" + nextCellToSolve.getIndex() + " with candidate " + candidate + ": found multiple solution");
+								}
 								
 								//If a multiple solution was found the hole sudoko has no unique solution
 								result = ExecuteResult.MULTIPLESOLUTION;
@@ -317,6 +568,109 @@ public abstract class StrategyExecutor {
 		
 	}
 	
+	/**
+	 * Analyses all candidates of the given cell concurrently, each on its own copy of the state. The 
+	 * branches are cancelled as soon as one of them has multiple solutions or a second one has a unique 
+	 * solution. A unique solution is saved in the current state.
+	 * @param currentState the current solution state of the field
+	 * @param cellIndex index of the backtracking cell
+	 * @param usedStrategies the list to add the strategies of all branches to
+	 * @param depth the number of backtracking candidates the branches are nested in
+	 * @return ExecuteResult which represents the combined result of all branches
+	 */
+	private ExecuteResult executeBranches(SolverState currentState, int cellIndex, List<SolverStrategy> usedStrategies, final int depth) {
+		
+		SolverStatistics statistics = this.statistics;
+		
+		final AtomicBoolean cancelled = new AtomicBoolean(false);
+		final AtomicInteger uniqueSolutions = new AtomicInteger(0);
+		
+		int cellMask = currentState.getCandidates().getMask(cellIndex);
+		int branchCount = CandidateGrid.countCandidates(cellMask);
+		List<SolverState> branchStates = new ArrayList<SolverState>(branchCount);
+		List<List<SolverStrategy>> branchStrategies = new ArrayList<List<SolverStrategy>>(branchCount);
+		List<Future<ExecuteResult>> branchResults = new ArrayList<Future<ExecuteResult>>(branchCount);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.parallelism, branchCount));
+		
+		try {
+		
+			//start a branch for every candidate
+			for (int remaining = cellMask; remaining != 0; remaining &= remaining - 1) {
+				
+				final SolverState branchState = currentState.clone();
+				if (statistics != null) {
+					statistics.recordStateClone();
+					statistics.recordBacktrackingNode(depth);
+				}
+				branchState.getCandidates().setMask(cellIndex, CandidateGrid.getValueMask(CandidateGrid.getLowestCandidate(remaining)));
+				final List<SolverStrategy> strategies = new LinkedList<SolverStrategy>();
+				
+				branchStates.add(branchState);
+				branchStrategies.add(strategies);
+				branchResults.add(executor.submit(new Callable<ExecuteResult>() {
+					public ExecuteResult call() {
+						ExecuteResult branchResult = executeStrategies(branchState, false, strategies, cancelled, depth + 1);
+						//stop the other branches if the field is not unique solvable anymore
+						if (branchResult == ExecuteResult.MULTIPLESOLUTION 
+								|| branchResult == ExecuteResult.UNIQUESOLUTION && uniqueSolutions.incrementAndGet() > 1) {
+							cancelled.set(true);
+						}
+						return branchResult;
+					}
+				}));
+				
+			}
+			
+			//combine the results in the order of the candidates
+			SolverState foundSolveState = null;
+			boolean multipleSolutions = false;
+			for (int i = 0; i < branchCount; i++) {
+				
+				ExecuteResult branchResult = branchResults.get(i).get();
+				usedStrategies.addAll(branchStrategies.get(i));
+				
+				if (branchResult == ExecuteResult.MULTIPLESOLUTION || branchResult == ExecuteResult.UNIQUESOLUTION && foundSolveState != null) {
+					multipleSolutions = true;
+				} else if (branchResult == ExecuteResult.UNIQUESOLUTION) {
+					foundSolveState = branchStates.get(i);
+				}
+				
+			}
+			
+			if (multipleSolutions || cancelled.get()) {
+				return ExecuteResult.MULTIPLESOLUTION;
+			}
+			
+			if (foundSolveState != null) {
+				currentState.fillCells(foundSolveState.getCellValues());
+				return ExecuteResult.UNIQUESOLUTION;
+			}
+			
+			return ExecuteResult.NOSOLUTION;
+			
+		} catch (InterruptedException ex) {
+			
+			//keep the interrupt for the caller, the result is unknown
+			Thread.currentThread().interrupt();
+			return ExecuteResult.NOSOLUTION;
+			
+		} catch (ExecutionException ex) {
+			
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+			
+		} finally {
+			
+			cancelled.set(true);
+			executor.shutdownNow();
+			
+		}
+		
+	}
+	
 	/**
 	 * Initialises a new instance of the {@link BacktrackingSolver} class
 	 */
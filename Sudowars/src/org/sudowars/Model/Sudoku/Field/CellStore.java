@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Sudoku.Field;
+
+import java.util.BitSet;
+
+/**
+ * The class {@link CellStore} holds the values and initial states of the {@link DataCell}s of a {@link Field}
+ * in a packed form. The values are stored as unsigned bytes and the initial states as a {@link BitSet},
+ * so a copy of the whole store consists of two array copies.
+ */
+final class CellStore {
+	
+	/**
+	 * The greatest value a slot of a {@link CellStore} can hold.
+	 */
+	static final int MAX_VALUE = 0xFF;
+	
+	private final byte[] values;
+	private final BitSet initial;
+	private int setCount;
+	
+	/**
+	 * Initializes a new instance of {@link CellStore} with the given number of not-set and not initial slots.
+	 *
+	 * @param size the number of slots
+	 *
+	 * @throws IllegalArgumentException if the given size is lower than <code>0</code>
+	 */
+	CellStore(int size) throws IllegalArgumentException {
+		if (size < 0) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.values = new byte[size];
+		this.initial = new BitSet(size);
+		this.setCount = 0;
+	}
+	
+	/**
+	 * Initializes a new instance of {@link CellStore} holding a copy of the given {@link CellStore}.
+	 *
+	 * @param source the {@link CellStore} to copy
+	 */
+	private CellStore(CellStore source) {
+		this.values = source.values.clone();
+		this.initial = (BitSet) source.initial.clone();
+		this.setCount = source.setCount;
+	}
+	
+	/**
+	 * Returns the number of slots of the {@link CellStore}.
+	 *
+	 * @return the number of slots
+	 */
+	int size() {
+		return this.values.length;
+	}
+	
+	/**
+	 * Returns the value of the given slot.
+	 *
+	 * @param slot the slot
+	 *
+	 * @return the value of the slot, {@link DataCell#NOT_SET} if the slot is not set
+	 */
+	int getValue(int slot) {
+		return this.values[slot] & MAX_VALUE;
+	}
+	
+	/**
+	 * Sets the value of the given slot.
+	 *
+	 * @param slot the slot
+	 * @param value the new value, between {@link DataCell#NOT_SET} and {@link #MAX_VALUE}
+	 */
+	void setValue(int slot, int value) {
+		int oldValue = this.values[slot] & MAX_VALUE;
+		
+		if (oldValue == DataCell.NOT_SET && value != DataCell.NOT_SET) {
+			this.setCount++;
+		} else if (oldValue != DataCell.NOT_SET && value == DataCell.NOT_SET) {
+			this.setCount--;
+		}
+		
+		this.values[slot] = (byte) value;
+	}
+	
+	/**
+	 * Returns whether the given slot is initial.
+	 *
+	 * @param slot the slot
+	 *
+	 * @return <code>true</code> if the slot is initial, otherwise <code>false</code>
+	 */
+	boolean isInitial(int slot) {
+		return this.initial.get(slot);
+	}
+	
+	/**
+	 * Sets the initial state of the given slot.
+	 *
+	 * @param slot the slot
+	 * @param state the new initial state
+	 */
+	void setInitial(int slot, boolean state) {
+		this.initial.set(slot, state);
+	}
+	
+	/**
+	 * Determines whether all slots of the {@link CellStore} are set.
+	 *
+	 * @return <code>true</code> if all slots are set, otherwise <code>false</code>
+	 */
+	boolean isFilled() {
+		return this.setCount == this.values.length;
+	}
+	
+	/**
+	 * Returns a copy of the {@link CellStore}.
+	 *
+	 * @return a copy of the {@link CellStore}
+	 */
+	CellStore copy() {
+		return new CellStore(this);
+	}
+}
@@ -44,8 +44,15 @@
  ******************************************************************************/
 package org.sudowars.Model.Sudoku.Field;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+
 /**
  * The class {@link DataCell} represents the smallest structure inside a {@link Sudoku}.
+ * The value and the initial state of a {@link DataCell} are kept in a {@link CellStore}. A {@link DataCell}
+ * of a {@link Field} is a view on a slot of the packed {@link CellStore} of the {@link Field}.
  */
 public final class DataCell implements Cell {
 	
@@ -53,6 +60,15 @@ public final class DataCell implements Cell {
 	 * Serial version UID for serialization.
 	 */
 	private static final long serialVersionUID = 7952639650027214265L;
+	
+	/**
+	 * The serialized fields of a {@link DataCell}, which are the fields of the former unpacked representation.
+	 */
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("value", int.class),
+		new ObjectStreamField("index", int.class),
+		new ObjectStreamField("initial", boolean.class)
+	};
 
 	/**
 	 * Define, if this cell is a given number in the sudoku game.
@@ -60,9 +76,9 @@ public final class DataCell implements Cell {
 	 */
 	public static final int NOT_SET = 0;
 	
-	private int value;
+	private CellStore store;
+	private int slot;
 	private int index;
-	private boolean initial;
 	
 	/**
 	 * Default constructor to initialize a new instance of type {@link DataCell} with a not-set value.
@@ -75,9 +91,22 @@ public final class DataCell implements Cell {
 			throw new IllegalArgumentException();
 		}
 		
-		this.value = NOT_SET;
+		this.store = new CellStore(1);
+		this.slot = 0;
 		this.index = index;
-		this.initial = initial;
+		this.store.setInitial(0, initial);
+	}
+	
+	/**
+	 * Initializes a new instance of type {@link DataCell} as view on the given slot of a {@link CellStore}.
+	 *
+	 * @param store the {@link CellStore} holding the value and initial state
+	 * @param slot the slot inside the {@link CellStore}, which is the {@link DataCell}s index as well
+	 */
+	DataCell(CellStore store, int slot) {
+		this.store = store;
+		this.slot = slot;
+		this.index = slot;
 	}
 
 	/**
@@ -86,7 +115,7 @@ public final class DataCell implements Cell {
 	 * @return an not-negative integer
 	 */
 	public int getValue() {
-		return value;
+		return this.store.getValue(this.slot);
 	}
 	
 	/**
@@ -105,7 +134,7 @@ public final class DataCell implements Cell {
 	 * @return whether this is an inital {@link DataCell} inside
 	 */
 	public boolean isInitial() {
-		return initial;
+		return this.store.isInitial(this.slot);
 	}
 	
 	/**
@@ -113,13 +142,13 @@ public final class DataCell implements Cell {
 	 *
 	 * @param value the {@link DataCell}s new value.
 	 *
-	 * @throws IllegalArgumentException if the value is lower than <code>0</code>. 
+	 * @throws IllegalArgumentException if the value is lower than <code>0</code> or greater than <code>255</code>. 
 	 */
 	public void setValue(int value) {
-		if (value < 0) {
+		if (value < 0 || value > CellStore.MAX_VALUE) {
 			throw new IllegalArgumentException("Illegal cell value");
 		}
-		this.value = value;
+		this.store.setValue(this.slot, value);
 	}
 	
 	/**
@@ -128,7 +157,7 @@ public final class DataCell implements Cell {
 	 * @param state the {@link DataCell}s new state.
 	 */
 	public void setInitial(boolean state) {
-		this.initial = state;
+		this.store.setInitial(this.slot, state);
 	}
 
 	/**
@@ -137,7 +166,39 @@ public final class DataCell implements Cell {
 	 */
 	@Override
 	public boolean isSet() {
-		return this.value != NOT_SET;
+		return this.store.getValue(this.slot) != NOT_SET;
+	}
+	
+	/**
+	 * Returns the {@link CellStore} holding the value and initial state of the {@link DataCell}.
+	 *
+	 * @return the {@link CellStore} of the {@link DataCell}
+	 */
+	CellStore getStore() {
+		return this.store;
+	}
+	
+	/**
+	 * Returns the slot of the {@link DataCell} inside its {@link CellStore}.
+	 *
+	 * @return the slot of the {@link DataCell}
+	 */
+	int getSlot() {
+		return this.slot;
+	}
+	
+	/**
+	 * Moves the value and initial state of the {@link DataCell} to the given slot of a {@link CellStore}
+	 * and makes the {@link DataCell} a view on this slot.
+	 *
+	 * @param store the new {@link CellStore}
+	 * @param slot the slot inside the new {@link CellStore}
+	 */
+	void bind(CellStore store, int slot) {
+		store.setValue(slot, this.getValue());
+		store.setInitial(slot, this.isInitial());
+		this.store = store;
+		this.slot = slot;
 	}
 	
 	/**
@@ -145,12 +206,48 @@ public final class DataCell implements Cell {
 	 * @return a deep copy of the calling {@link DataCell}
 	 */
 	public DataCell clone() {
-		DataCell newCell = new DataCell(this.index, this.initial);
-		if (this.value != DataCell.NOT_SET) {
-			newCell.setValue(this.value);
+		DataCell newCell = new DataCell(this.index, this.isInitial());
+		if (this.isSet()) {
+			newCell.setValue(this.getValue());
 		}
 		return newCell;
 	}
-
 	
+	/**
+	 * Writes the {@link DataCell} in the format of the former unpacked representation.
+	 *
+	 * @param out the stream to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("value", this.getValue());
+		fields.put("index", this.index);
+		fields.put("initial", this.isInitial());
+		out.writeFields();
+	}
+	
+	/**
+	 * Reads the {@link DataCell} into a {@link CellStore} of its own.
+	 *
+	 * @param in the stream to read from
+	 *
+	 * @throws IOException if an I/O error occurs
+	 * @throws ClassNotFoundException if a class of a serialized object cannot be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		int value = fields.get("value", NOT_SET);
+		
+		if (value < 0 || value > CellStore.MAX_VALUE) {
+			throw new IOException("Illegal cell value");
+		}
+		
+		this.store = new CellStore(1);
+		this.slot = 0;
+		this.index = fields.get("index", 0);
+		this.store.setValue(0, value);
+		this.store.setInitial(0, fields.get("initial", false));
+	}
 }
@@ -44,8 +44,12 @@
  ******************************************************************************/
 package org.sudowars.Model.Sudoku.Field;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -53,6 +57,9 @@ import java.util.List;
  * The class {@link Field} represents a 2 dimensional field of {@link Cell}s.
  * The {@link Field}s structure is defined and retrievable by the inherited {@link FieldStructure}.
  * This {@link FieldStructure} also allows the {@link Field} to not only hold {@link Cell}s but also gaps.
+ * <br>
+ * A {@link Field} of {@link DataCell}s is packed: the values and initial states are held by a {@link CellStore}
+ * and the {@link DataCell}s are views on it, which are created on first access.
  */
 public final class Field<T extends Cell> implements Cloneable, Serializable {
 
@@ -64,8 +71,13 @@ public final class Field<T extends Cell> implements Cloneable, Serializable {
 	private List<T> cells;
 	private FieldStructure structure;
 	
+	//set if the field is packed, the views are shared with converted fields
+	private transient CellStore store;
+	private transient Cell[] views;
+	
 	/**
 	 * Initializes a new instance of {@link Field} with the given parameters.
+	 * If all given {@link Cell}s are {@link DataCell}s the {@link Field} is packed.
 	 *
 	 * @param cells a {@link List} of {@link Cell}s
 	 * @param structure the instances future {@link FieldStructure}
@@ -80,6 +92,71 @@ public final class Field<T extends Cell> implements Cloneable, Serializable {
 		
 		this.cells = cells;
 		this.structure = structure;
+		this.pack();
+	}
+	
+	/**
+	 * Initializes a new instance of a packed {@link Field} with the given parameters.
+	 *
+	 * @param store the {@link CellStore} holding the values and initial states
+	 * @param views the views on the {@link CellStore}, <code>null</code> for views not created yet
+	 * @param structure the instances future {@link FieldStructure}
+	 *
+	 * @throws IllegalArgumentException if at least one given parameter is <code>null</code>
+	 */
+	Field(CellStore store, Cell[] views, FieldStructure structure) throws IllegalArgumentException {
+		
+		if (store == null || views == null || structure == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.cells = null;
+		this.structure = structure;
+		this.store = store;
+		this.views = views;
+	}
+	
+	/**
+	 * Packs the {@link Cell}s of the {@link Field} into a {@link CellStore}, if all of them are {@link DataCell}s
+	 * with their position as index. {@link DataCell}s that are views of another {@link CellStore} already
+	 * are only shared as a whole, otherwise the {@link Field} stays unpacked.
+	 */
+	private void pack() {
+		int size = this.cells.size();
+		
+		if (size == 0 || !(this.cells.get(0) instanceof DataCell)) {
+			return;
+		}
+		
+		CellStore sharedStore = ((DataCell) this.cells.get(0)).getStore();
+		boolean shared = sharedStore.size() == size;
+		boolean unbound = true;
+		
+		for (int i = 0; i < size; i++) {
+			Cell cell = this.cells.get(i);
+			
+			if (!(cell instanceof DataCell) || cell.getIndex() != i) {
+				return;
+			}
+			
+			DataCell dataCell = (DataCell) cell;
+			shared &= dataCell.getStore() == sharedStore && dataCell.getSlot() == i;
+			unbound &= dataCell.getStore().size() == 1;
+		}
+		
+		if (shared) {
+			this.store = sharedStore;
+		} else if (unbound) {
+			this.store = new CellStore(size);
+			
+			for (int i = 0; i < size; i++) {
+				((DataCell) this.cells.get(i)).bind(this.store, i);
+			}
+		} else {
+			return;
+		}
+		
+		this.views = this.cells.toArray(new Cell[size]);
 	}
 	
 	/**
@@ -90,6 +167,10 @@ public final class Field<T extends Cell> implements Cloneable, Serializable {
 	 * @see Cell#isSet()
 	 */
 	public boolean isFilled() {
+		if (this.store != null) {
+			return this.store.isFilled();
+		}
+		
 		for (Cell cell : cells) {
 			if (!cell.isSet()) {
 				return false;
@@ -113,7 +194,7 @@ public final class Field<T extends Cell> implements Cloneable, Serializable {
 	 */
 	public T getCell(int x, int y) throws IllegalArgumentException{
 		try {
-			return cells.get(structure.getIndex(x, y));
+			return this.getCellAt(structure.getIndex(x, y));
 		} catch (IllegalArgumentException e) {
 			throw e;
 		}
@@ -130,12 +211,36 @@ public final class Field<T extends Cell> implements Cloneable, Serializable {
 	 */
 	public T getCell(int index) throws IllegalArgumentException {
 		if (index >= 0 && index < structure.getUsedSlotCount()) {
-			return cells.get(index);
+			return this.getCellAt(index);
 		} else {
 			throw new IllegalArgumentException("Illegal index");
 		}
 	}
 	
+	/**
+	 * Returns the {@link Cell} with the given index, creating the view if the {@link Field} is packed.
+	 *
+	 * @param index the given index.
+	 *
+	 * @return the {@link Cell} with the given index.
+	 */
+	@SuppressWarnings("unchecked")
+	private T getCellAt(int index) {
+		if (this.store == null) {
+			return cells.get(index);
+		}
+		
+		Cell view = this.views[index];
+		if (view == null) {
+			view = new DataCell(this.store, index);
+			this.views[index] = view;
+		}
+		return (T) view;
+		/*		^^^^^^^^^^
+		 * a packed field is a Field<DataCell> or a converted Field<Cell>.
+		 */
+	}
+	
 	/**
 	 * Returns the {@link Field}s {@link FieldStructure} which represents the {@link Field}s structure.
 	 * @return the {@link Field}s {@link FieldStructure}
@@ -151,7 +256,23 @@ public final class Field<T extends Cell> implements Cloneable, Serializable {
 	 * @return an unmodifiable {@link List} with all {@link Cell}s of this {@link Field}
 	 */
 	public List<T> getCells() {
-		return Collections.unmodifiableList(cells);
+		return Collections.unmodifiableList(this.getCellList());
+	}
+	
+	/**
+	 * Returns the {@link List} of all {@link Cell}s, creating all views if the {@link Field} is packed.
+	 *
+	 * @return the {@link List} of all {@link Cell}s
+	 */
+	@SuppressWarnings("unchecked")
+	private List<T> getCellList() {
+		if (this.cells == null) {
+			for (int i = 0; i < this.views.length; i++) {
+				this.getCellAt(i);
+			}
+			this.cells = new ArrayList<T>((List<T>) Arrays.asList(this.views));
+		}
+		return this.cells;
 	}
 	
 	/**
@@ -160,6 +281,11 @@ public final class Field<T extends Cell> implements Cloneable, Serializable {
 	 */
 	@SuppressWarnings("unchecked")
 	public Field<T> clone() {
+		if (this.store != null) {
+			//the views of the copy are created on first access
+			return new Field<T>(this.store.copy(), new Cell[this.views.length], structure);
+		}
+		
 		List<T> newCellList = new ArrayList<T>(cells.size());
 		for (T c : cells) {
 			newCellList.add((T) c.clone());
@@ -177,10 +303,39 @@ public final class Field<T extends Cell> implements Cloneable, Serializable {
 	 * @return a new {@link Field<Cell>} with the calling {@link Field}s {@link Cell}s.
 	 */
 	public Field<Cell> convert() {
+		if (this.store != null) {
+			// valid as both fields share the views.
+			return new Field<Cell>(this.store, this.views, this.structure);
+		}
+		
 		ArrayList<Cell> newCells = new ArrayList<Cell>(this.cells.size());
 		newCells.addAll(this.cells);
 		// valid as order is retained.
 		return new Field<Cell>(newCells, this.structure);
 	}
+	
+	/**
+	 * Writes the {@link Field} with the list of its {@link Cell}s like an unpacked {@link Field}.
+	 *
+	 * @param out the stream to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		this.getCellList();
+		out.defaultWriteObject();
+	}
+	
+	/**
+	 * Reads the {@link Field} and packs its {@link Cell}s.
+	 *
+	 * @param in the stream to read from
+	 *
+	 * @throws IOException if an I/O error occurs
+	 * @throws ClassNotFoundException if a class of a serialized object cannot be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.pack();
+	}
 }
-
@@ -71,6 +71,12 @@ public class FieldBuilder<T extends Cell> {
 			throw new IllegalArgumentException();
 		}
 		
+		if (cellBuilder.getClass() == DataCellBuilder.class) {
+			//not initial data cells are created on first access of the packed field
+			return new Field<T>(new CellStore(structure.getUsedSlotCount()),
+					new Cell[structure.getUsedSlotCount()], structure);
+		}
+		
 		List<T> cells = new ArrayList<T>(structure.getUsedSlotCount());
 		
 		int index = 0;
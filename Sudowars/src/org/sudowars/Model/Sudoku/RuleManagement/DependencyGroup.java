@@ -67,6 +67,9 @@ public class DependencyGroup implements Serializable {
 	
 	private List<Integer> indices;
 	private Rule rule;
+	
+	// the indices without boxing, built on first use as it is not serialized
+	private transient int[] indexArray;
 
 	/**
 	 * Initializes a new {@link DependencyGroup} instance with the given parameters.
@@ -143,6 +146,23 @@ public class DependencyGroup implements Serializable {
 		return Collections.unmodifiableList(indices);
 	}
 	
+	/**
+	 * Returns the inherited indices as an array. The array is shared and must not be modified.
+	 *
+	 * @return the inherited indices.
+	 */
+	int[] getIndexArray() {
+		int[] result = indexArray;
+		if (result == null) {
+			result = new int[indices.size()];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = indices.get(i);
+			}
+			indexArray = result;
+		}
+		return result;
+	}
+	
 }
 
 
@@ -44,7 +44,10 @@
  ******************************************************************************/
 package org.sudowars.Model.Sudoku.RuleManagement;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -63,6 +66,12 @@ public class DependencyManager implements Serializable {
 	
 	private List<DependencyGroup> groups;
 	
+	// lookup tables built once from the groups, addressed by cell index or group id
+	// a group id is the position of the group in the list of groups
+	private transient int[][] cellGroupIds;
+	private transient int[][] cellPeers;
+	private transient int[][] groupCells;
+	
 	/**
 	 * Initializes a new {@link DependencyManager} instance with the given parameters.
 	 *
@@ -74,7 +83,84 @@ public class DependencyManager implements Serializable {
 		if (groups == null) {
 			throw new IllegalArgumentException();
 		}
-		this.groups = groups;
+		// ArrayList implementation of List, as the groups are accessed by their id
+		this.groups = new ArrayList<DependencyGroup>(groups);
+		buildTables();
+	}
+	
+	/**
+	 * Builds the lookup tables of cells, peers and groups.
+	 */
+	private void buildTables() {
+		int groupCount = groups.size();
+		
+		// the number of cells is given by the biggest index used by a group
+		int cellCount = 0;
+		groupCells = new int[groupCount][];
+		for (int groupId = 0; groupId < groupCount; groupId++) {
+			List<Integer> indices = groups.get(groupId).getIndices();
+			groupCells[groupId] = new int[indices.size()];
+			for (int i = 0; i < indices.size(); i++) {
+				groupCells[groupId][i] = indices.get(i);
+				cellCount = Math.max(cellCount, indices.get(i) + 1);
+			}
+		}
+		
+		// count the groups of every cell before filling the table
+		int[] groupCounts = new int[cellCount];
+		for (int groupId = 0; groupId < groupCount; groupId++) {
+			for (int index : groupCells[groupId]) {
+				groupCounts[index]++;
+			}
+		}
+		
+		cellGroupIds = new int[cellCount][];
+		for (int index = 0; index < cellCount; index++) {
+			cellGroupIds[index] = new int[groupCounts[index]];
+			groupCounts[index] = 0;
+		}
+		for (int groupId = 0; groupId < groupCount; groupId++) {
+			for (int index : groupCells[groupId]) {
+				cellGroupIds[index][groupCounts[index]++] = groupId;
+			}
+		}
+		
+		// the peers of a cell are all other cells of its groups, each one listed once
+		cellPeers = new int[cellCount][];
+		boolean[] isPeer = new boolean[cellCount];
+		int[] peers = new int[cellCount];
+		for (int index = 0; index < cellCount; index++) {
+			int peerCount = 0;
+			for (int groupId : cellGroupIds[index]) {
+				for (int peer : groupCells[groupId]) {
+					if (peer != index && !isPeer[peer]) {
+						isPeer[peer] = true;
+						peers[peerCount++] = peer;
+					}
+				}
+			}
+			cellPeers[index] = new int[peerCount];
+			for (int i = 0; i < peerCount; i++) {
+				cellPeers[index][i] = peers[i];
+				isPeer[peers[i]] = false;
+			}
+		}
+	}
+	
+	/**
+	 * Restores the lookup tables after deserialization.
+	 *
+	 * @param in the stream to read the object from
+	 *
+	 * @throws IOException if the stream could not be read
+	 * @throws ClassNotFoundException if the class of a serialized object could not be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		if (!(groups instanceof ArrayList)) {
+			groups = new ArrayList<DependencyGroup>(groups);
+		}
+		buildTables();
 	}
 	
 	/**
@@ -87,6 +173,82 @@ public class DependencyManager implements Serializable {
 		return Collections.unmodifiableList(groups);
 	}
 	
+	/**
+	 * Returns the {@link DependencyGroup} with the given id, i.e. its position in {@link #getDependencyGroups()}.
+	 *
+	 * @param groupId the id of the group
+	 *
+	 * @return the {@link DependencyGroup} with the given id
+	 *
+	 * @throws IllegalArgumentException if there is no group with the given id
+	 */
+	public DependencyGroup getDependencyGroup(int groupId) throws IllegalArgumentException {
+		if (groupId < 0 || groupId >= groupCells.length) {
+			throw new IllegalArgumentException();
+		}
+		return groups.get(groupId);
+	}
+	
+	/**
+	 * Returns the number of cells covered by the {@link DependencyGroup}s, i.e. the biggest index plus one.
+	 *
+	 * @return the number of cells
+	 */
+	public int getCellCount() {
+		return cellGroupIds.length;
+	}
+	
+	/**
+	 * Returns the ids of all {@link DependencyGroup}s which include the given cell index.
+	 * The returned array is shared and must not be modified.
+	 *
+	 * @param cellIndex the index of the cell
+	 *
+	 * @return the ids of the groups of the cell
+	 *
+	 * @throws IllegalArgumentException if the index is not covered by the groups
+	 */
+	public int[] getGroupIdsOfCell(int cellIndex) throws IllegalArgumentException {
+		if (cellIndex < 0 || cellIndex >= cellGroupIds.length) {
+			throw new IllegalArgumentException();
+		}
+		return cellGroupIds[cellIndex];
+	}
+	
+	/**
+	 * Returns the indices of all other cells sharing at least one {@link DependencyGroup} with the given cell index.
+	 * Every peer is listed once. The returned array is shared and must not be modified.
+	 *
+	 * @param cellIndex the index of the cell
+	 *
+	 * @return the indices of the peers of the cell
+	 *
+	 * @throws IllegalArgumentException if the index is not covered by the groups
+	 */
+	public int[] getPeersOfCell(int cellIndex) throws IllegalArgumentException {
+		if (cellIndex < 0 || cellIndex >= cellPeers.length) {
+			throw new IllegalArgumentException();
+		}
+		return cellPeers[cellIndex];
+	}
+	
+	/**
+	 * Returns the cell indices of the {@link DependencyGroup} with the given id.
+	 * The returned array is shared and must not be modified.
+	 *
+	 * @param groupId the id of the group
+	 *
+	 * @return the indices of the cells of the group
+	 *
+	 * @throws IllegalArgumentException if there is no group with the given id
+	 */
+	public int[] getCellsOfGroup(int groupId) throws IllegalArgumentException {
+		if (groupId < 0 || groupId >= groupCells.length) {
+			throw new IllegalArgumentException();
+		}
+		return groupCells[groupId];
+	}
+	
 	/**
 	 * Returns all {@link DependencyGroup}s the {@link DependencyManager} knows which include the
 	 * given {@link Cell}s index.
@@ -103,27 +265,20 @@ public class DependencyManager implements Serializable {
 			throw new IllegalArgumentException();
 		}
 		
-		List<DependencyGroup> result = new LinkedList<DependencyGroup>();
+		if (cell.getIndex() < 0 || cell.getIndex() >= cellGroupIds.length) {
+			// index not covered by any group
+			return new LinkedList<DependencyGroup>();
+		}
 		
-		for (DependencyGroup group : groups) {
-			// check group
-			for (int index : group.getIndices()) {
-				// check all indices IN the group being checked
-				if (index == cell.getIndex()) {
-					// wow, we found a match
-					// group being checked therefore contains the cells index
-					// => the translation of this group by using the field containing the given cell
-					// 	  would return a list of cells which contains the given cell.
-					result.add(group);
-				}
-			}
+		// ArrayList implementation of List, as the size is known
+		int[] groupIds = cellGroupIds[cell.getIndex()];
+		List<DependencyGroup> result = new ArrayList<DependencyGroup>(groupIds.length);
+		for (int groupId : groupIds) {
+			result.add(groups.get(groupId));
 		}
 		
-		// no read-only view needed as the list isn't buffered
-		// could be optimized by buffering the list
+		// no read-only view needed as the list is generated each time
 		return result;
 	}
 	
 }
-
-
@@ -91,7 +91,7 @@ public final class NoDuplicatesRule extends RuleDecorator {
 	@Override
 	public List<Integer> getValidValues(Field<Cell> field, DependencyGroup group, Cell cell) {
 		
-		if (field == null || group == null || cell == null || !field.getCells().contains(cell)) {
+		if (field == null || group == null || cell == null || !cell.equals(field.getCell(cell.getIndex()))) {
 			// if any parameter is null
 			// or
 			// if the given Cell is not contained by the given Field
@@ -124,6 +124,42 @@ public final class NoDuplicatesRule extends RuleDecorator {
 		// no read-only view needed as the list is generated each time
 		return validValues;
 	}
+	
+	/**
+	 * Returns the mask of valid values for this {@link Cell} according to that {@link Rule}, {@link DependencyGroup} combination.
+	 * This concrete implementation returns the mask of the decorated {@link Rule} except the values which are already held by 
+	 * other {@link Cell}s linked to by the {@link DependencyGroup}
+	 *
+	 * @param field the {@link Field} holding the {@link Cell}s.
+	 * @param group the {@link DependencyGroup} knowing which {@link Cell}s of {@link Field} should be taken into account.
+	 * @param cell the {@link Cell} the cell whose possible values are to be retrieved
+	 *
+	 * @return the mask of valid values for the given {@link Cell}
+	 *
+	 * @throws IllegalArgumentExecption in the cases of {@link #getValidValues(Field, DependencyGroup, Cell)}
+	 */
+	@Override
+	public int getValidMask(Field<Cell> field, DependencyGroup group, Cell cell) {
+		
+		if (field == null || group == null || cell == null || !cell.equals(field.getCell(cell.getIndex()))) {
+			// if any parameter is null
+			// or
+			// if the given Cell is not contained by the given Field
+			throw new IllegalArgumentException();
+		}
+		
+		int usedMask = 0;
+		
+		// field.getCell(...) throws the IllegalArgumentException if an index of the group is not covered by field
+		for (int index : group.getIndexArray()) {
+			Cell c = field.getCell(index);
+			if (c != cell && c.isSet()) {
+				usedMask |= 1 << (c.getValue() - 1);
+			}
+		}
+		
+		return this.getDecoratedRule().getValidMask(field, group, cell) & ~usedMask;
+	}
 		
 }
 
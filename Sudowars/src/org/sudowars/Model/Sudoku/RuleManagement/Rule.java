@@ -65,6 +65,18 @@ public interface Rule extends Serializable {
 	 * @return a {@link List} of possible valid values for the given {@link Cell}
 	 */
 	public List<Integer> getValidValues(Field<Cell> field, DependencyGroup group, Cell cell);
+	
+	/**
+	 * Returns the values the {@link Rule} would accept to be held by this {@link Cell} in this {@link DependencyGroup} as a bit mask.
+	 * The value <code>v</code> is represented by the bit <code>v - 1</code>, so only the values 1 to 32 can be represented. The mask 
+	 * holds the same values as {@link #getValidValues(Field, DependencyGroup, Cell)} without allocating a {@link List}.
+	 * 
+	 * @param field the {@link Field} containing the {@link Cell} and the {@link Cell}s linked by the {@link DependencyGroup}
+	 * @param group the {@link DependencyGroup} containing the indices used to retrieve the {@link Cell}s from the {@link Field}
+	 * @param cell the {@link Cell} whose possible values are to be determined.
+	 * @return the mask of possible valid values for the given {@link Cell}
+	 */
+	public int getValidMask(Field<Cell> field, DependencyGroup group, Cell cell);
 }
 
 
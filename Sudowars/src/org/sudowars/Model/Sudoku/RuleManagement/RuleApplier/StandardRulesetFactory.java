@@ -44,6 +44,8 @@
  ******************************************************************************/
 package org.sudowars.Model.Sudoku.RuleManagement.RuleApplier;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
@@ -58,17 +60,22 @@ import org.sudowars.Model.Sudoku.RuleManagement.UpperLimitRule;
 
 /**
  * Factory for creating {@link Sudoku}s with the standard ruleset.
+ * The rulesets are built once and shared, as {@link DependencyManager}s cannot be modified.
+ * A standard ruleset is serialized by its block size and resolved to the shared instance on read.
  */
 public class StandardRulesetFactory implements Serializable {
 
 	private static final long serialVersionUID = -2378028208799734897L;
 	private static StandardRulesetFactory instance;
 	
+	private transient DependencyManager ruleset9x9;
+	private transient DependencyManager ruleset16x16;
+	
 	/**
 	 * Singleton
 	 * @return the only instance of class {@link StandardRulesetFactory}
 	 */
-	public static StandardRulesetFactory getInstance() {
+	public static synchronized StandardRulesetFactory getInstance() {
 		if (instance == null) {
 			instance = new StandardRulesetFactory();
 		}
@@ -94,16 +101,36 @@ public class StandardRulesetFactory implements Serializable {
 	 * Returns the standard ruleset for 9x9 {@link Sudoku}s.
 	 * @return the standard ruleset for 9x9 {@link Sudoku}s.
 	 */
-	public DependencyManager build9x9Ruleset() {
-		return buildRuleset(3);
+	public synchronized DependencyManager build9x9Ruleset() {
+		if (this.ruleset9x9 == null) {
+			this.ruleset9x9 = buildRuleset(3);
+		}
+		return this.ruleset9x9;
 	}
 	
 	/**
 	 * Returns the standard ruleset for 16x16 {@link Sudoku}s.
 	 * @return the standard ruleset for 16x16 {@link Sudoku}s.
 	 */
-	public DependencyManager build16x16Ruleset() {
-		return buildRuleset(4);
+	public synchronized DependencyManager build16x16Ruleset() {
+		if (this.ruleset16x16 == null) {
+			this.ruleset16x16 = buildRuleset(4);
+		}
+		return this.ruleset16x16;
+	}
+	
+	/**
+	 * Returns the standard ruleset with the given block size.
+	 * @param minBlockSize the width and height of a block
+	 * @return the standard ruleset with the given block size
+	 * @throws InvalidObjectException if there is no standard ruleset with the given block size
+	 */
+	private DependencyManager getRuleset(int minBlockSize) throws InvalidObjectException {
+		switch (minBlockSize) {
+			case 3 : return build9x9Ruleset();
+			case 4 : return build16x16Ruleset();
+			default : throw new InvalidObjectException("Unknown standard ruleset");
+		}
 	}
 	
 	/**
@@ -115,7 +142,15 @@ public class StandardRulesetFactory implements Serializable {
 		return depManager instanceof StandardDependencyManager;
 	}
 	
-	private class StandardDependencyManager extends DependencyManager {
+	/**
+	 * Resolves a deserialized factory to the singleton.
+	 * @return the only instance of class {@link StandardRulesetFactory}
+	 */
+	private Object readResolve() {
+		return getInstance();
+	}
+	
+	private static class StandardDependencyManager extends DependencyManager {
 
 		/**
 		 * 
@@ -126,5 +161,52 @@ public class StandardRulesetFactory implements Serializable {
 			super(groups);
 		}
 		
+		/**
+		 * Returns the block size of the ruleset, given by the number of cells.
+		 * @return the width and height of a block
+		 */
+		private int getMinBlockSize() {
+			return (int) Math.round(Math.sqrt(Math.sqrt(getCellCount())));
+		}
+		
+		/**
+		 * Replaces the ruleset by its block size for serialization.
+		 * @return the {@link SerializedRuleset} of the ruleset
+		 */
+		private Object writeReplace() {
+			return new SerializedRuleset(getMinBlockSize());
+		}
+		
+		/**
+		 * Resolves a ruleset serialized with all its groups to the shared instance.
+		 * @return the shared standard ruleset of the same size
+		 * @throws ObjectStreamException if there is no standard ruleset of the same size
+		 */
+		private Object readResolve() throws ObjectStreamException {
+			return getInstance().getRuleset(getMinBlockSize());
+		}
+	}
+	
+	/**
+	 * The serialized form of a standard ruleset.
+	 */
+	private static class SerializedRuleset implements Serializable {
+		
+		private static final long serialVersionUID = 2714520487611035263L;
+		
+		private final int minBlockSize;
+		
+		private SerializedRuleset(int minBlockSize) {
+			this.minBlockSize = minBlockSize;
+		}
+		
+		/**
+		 * Resolves the serialized ruleset to the shared instance.
+		 * @return the shared standard ruleset with the block size
+		 * @throws ObjectStreamException if there is no standard ruleset with the block size
+		 */
+		private Object readResolve() throws ObjectStreamException {
+			return getInstance().getRuleset(this.minBlockSize);
+		}
 	}
 }
@@ -87,5 +87,29 @@ public abstract class RuleDecorator implements Rule {
 	 */
 	@Override
 	public abstract List<Integer> getValidValues(Field<Cell> field, DependencyGroup group, Cell cell);
+	
+	/**
+	 * Returns the mask of the values returned by {@link #getValidValues(Field, DependencyGroup, Cell)}. Concrete 
+	 * RuleDecorators should override it to filter the mask of the decorated {@link Rule} without building the {@link List}.
+	 * 
+	 * @see {@link Rule#getValidMask(Field, DependencyGroup, Cell)}
+	 */
+	@Override
+	public int getValidMask(Field<Cell> field, DependencyGroup group, Cell cell) {
+		return toValueMask(this.getValidValues(field, group, cell));
+	}
+	
+	/**
+	 * Returns the mask of the given values.
+	 * @param values the values between 1 and 32
+	 * @return the mask of the values
+	 */
+	protected static int toValueMask(List<Integer> values) {
+		int mask = 0;
+		for (int value : values) {
+			mask |= 1 << (value - 1);
+		}
+		return mask;
+	}
 
 }
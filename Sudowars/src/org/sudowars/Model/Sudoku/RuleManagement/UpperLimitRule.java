@@ -97,5 +97,18 @@ public class UpperLimitRule implements Rule {
 	public List<Integer> getValidValues(Field<Cell> field, DependencyGroup group, Cell cell) {
 		return this.bufferedValidValueList;
 	}
+	
+	/**
+	 * Returns the mask of all values from 1 to the bound given on {@link Rule}-construction (including bounds).
+	 * @param field not needed => can be anything
+	 * @param group not needed => can be anything
+	 * @param cell not needed => can be anything
+	 */
+	@Override
+	public int getValidMask(Field<Cell> field, DependencyGroup group, Cell cell) {
+		// the bound is the size of the buffered list, so instances serialized without a mask are supported
+		int upperLimit = this.bufferedValidValueList.size();
+		return (upperLimit >= 32) ? -1 : (1 << upperLimit) - 1;
+	}
 
 }
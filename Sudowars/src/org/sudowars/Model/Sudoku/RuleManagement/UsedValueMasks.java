@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.Sudoku.RuleManagement;
+
+import org.sudowars.Model.Sudoku.Field.Cell;
+import org.sudowars.Model.Sudoku.Field.Field;
+import org.sudowars.Model.Sudoku.RuleManagement.RuleApplier.StandardRulesetFactory;
+
+/**
+ * The class {@link UsedValueMasks} evaluates the {@link NoDuplicatesRule}s of a standard ruleset on bit masks. 
+ * For every {@link DependencyGroup} it counts how often each value is held by its {@link Cell}s, so the valid 
+ * values of a {@link Cell} are the values not used by the other {@link Cell}s of its groups. The counts are 
+ * updated when a value is set or removed instead of scanning the groups for every {@link Cell}.
+ * 
+ * A value is represented by the bit <code>value - 1</code> of a mask.
+ * @see StandardRulesetFactory
+ */
+public class UsedValueMasks {
+	
+	private final DependencyManager dependencyManager;
+	private final int maxValue;
+	
+	// number of cells holding a value, addressed by group id and value
+	private final int[][] valueCounts;
+	
+	// values held by at least one cell of a group, addressed by group id
+	private final int[] usedMasks;
+	
+	// current value of every cell
+	private final int[] cellValues;
+	
+	/**
+	 * Initializes a new {@link UsedValueMasks} instance with the values of the given {@link Field}.
+	 *
+	 * @param field the {@link Field} holding the values
+	 * @param dependencyManager the standard ruleset of the {@link Field}
+	 *
+	 * @throws IllegalArgumentException if any parameter is <code>null</code>, the {@link DependencyManager} is no 
+	 * 			standard ruleset or a value of the {@link Field} is not allowed by the ruleset
+	 */
+	public UsedValueMasks(Field<? extends Cell> field, DependencyManager dependencyManager) throws IllegalArgumentException {
+		
+		if (field == null || dependencyManager == null || !isSupported(dependencyManager)) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.dependencyManager = dependencyManager;
+		
+		// every value is used exactly once in a group of a standard ruleset
+		int groupCount = dependencyManager.getDependencyGroups().size();
+		this.maxValue = dependencyManager.getCellsOfGroup(0).length;
+		this.valueCounts = new int[groupCount][this.maxValue + 1];
+		this.usedMasks = new int[groupCount];
+		this.cellValues = new int[dependencyManager.getCellCount()];
+		
+		for (Cell cell : field.getCells()) {
+			if (cell.isSet()) {
+				this.setValue(cell.getIndex(), cell.getValue());
+			}
+		}
+		
+	}
+	
+	/**
+	 * Determines whether the given {@link DependencyManager} can be evaluated on bit masks.
+	 *
+	 * @param dependencyManager the given {@link DependencyManager}
+	 *
+	 * @return <code>true</code> if the {@link DependencyManager} is a standard ruleset, <code>false</code> otherwise
+	 */
+	public static boolean isSupported(DependencyManager dependencyManager) {
+		return StandardRulesetFactory.getInstance().isStandardRuleset(dependencyManager);
+	}
+	
+	/**
+	 * Returns the mask holding all values allowed by the ruleset.
+	 *
+	 * @return the mask of all values
+	 */
+	public int getAllValuesMask() {
+		return (this.maxValue == 32) ? -1 : (1 << this.maxValue) - 1;
+	}
+	
+	/**
+	 * Returns the mask of the values held by the {@link Cell}s of a {@link DependencyGroup}.
+	 *
+	 * @param groupId the id of the {@link DependencyGroup}
+	 *
+	 * @return the mask of the used values
+	 *
+	 * @throws IllegalArgumentException if the group id is not covered by the ruleset
+	 */
+	public int getUsedMask(int groupId) throws IllegalArgumentException {
+		
+		if (groupId < 0 || groupId >= this.usedMasks.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		return this.usedMasks[groupId];
+		
+	}
+	
+	/**
+	 * Returns the mask of the values the {@link Rule}s would accept to be held by a {@link Cell}, i.e. the 
+	 * values not held by the other {@link Cell}s of its {@link DependencyGroup}s.
+	 *
+	 * @param cellIndex the index of the {@link Cell}
+	 *
+	 * @return the mask of the valid values
+	 *
+	 * @throws IllegalArgumentException if the index is not covered by the ruleset
+	 */
+	public int getValidMask(int cellIndex) throws IllegalArgumentException {
+		
+		int[] groupIds = this.dependencyManager.getGroupIdsOfCell(cellIndex);
+		int value = this.cellValues[cellIndex];
+		
+		int usedMask = 0;
+		boolean usedByOtherCell = false;
+		for (int groupId : groupIds) {
+			usedMask |= this.usedMasks[groupId];
+			if (value != 0 && this.valueCounts[groupId][value] > 1) {
+				usedByOtherCell = true;
+			}
+		}
+		
+		// the own value of the cell is only invalid if another cell holds it too
+		if (value != 0 && !usedByOtherCell) {
+			usedMask &= ~(1 << (value - 1));
+		}
+		
+		return this.getAllValuesMask() & ~usedMask;
+		
+	}
+	
+	/**
+	 * Determines whether the value of a {@link Cell} is held by another {@link Cell} of its {@link DependencyGroup}s.
+	 *
+	 * @param cellIndex the index of the {@link Cell}
+	 *
+	 * @return <code>true</code> if the {@link Cell} is set and its value is held by another {@link Cell} 
+	 * 			of its {@link DependencyGroup}s, <code>false</code> otherwise
+	 *
+	 * @throws IllegalArgumentException if the index is not covered by the ruleset
+	 */
+	public boolean isConflicting(int cellIndex) throws IllegalArgumentException {
+		
+		int[] groupIds = this.dependencyManager.getGroupIdsOfCell(cellIndex);
+		int value = this.cellValues[cellIndex];
+		
+		if (value != 0) {
+			for (int groupId : groupIds) {
+				if (this.valueCounts[groupId][value] > 1) return true;
+			}
+		}
+		
+		return false;
+		
+	}
+	
+	/**
+	 * Returns the value of a {@link Cell} the masks were updated with.
+	 *
+	 * @param cellIndex the index of the {@link Cell}
+	 *
+	 * @return the value of the {@link Cell}, <code>0</code> if it is not set
+	 *
+	 * @throws IllegalArgumentException if the index is not covered by the ruleset
+	 */
+	public int getValue(int cellIndex) throws IllegalArgumentException {
+		
+		if (cellIndex < 0 || cellIndex >= this.cellValues.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		return this.cellValues[cellIndex];
+		
+	}
+	
+	/**
+	 * Updates the masks of the {@link DependencyGroup}s of a {@link Cell} with its new value.
+	 *
+	 * @param cellIndex the index of the {@link Cell}
+	 * @param value the new value of the {@link Cell}, <code>0</code> if the value was removed
+	 *
+	 * @throws IllegalArgumentException if the index is not covered by the ruleset or the value is not allowed
+	 */
+	public void setValue(int cellIndex, int value) throws IllegalArgumentException {
+		
+		if (cellIndex < 0 || cellIndex >= this.cellValues.length || value < 0 || value > this.maxValue) {
+			throw new IllegalArgumentException();
+		}
+		
+		int oldValue = this.cellValues[cellIndex];
+		if (oldValue == value) return;
+		this.cellValues[cellIndex] = value;
+		
+		for (int groupId : this.dependencyManager.getGroupIdsOfCell(cellIndex)) {
+			int[] counts = this.valueCounts[groupId];
+			if (oldValue != 0 && --counts[oldValue] == 0) {
+				this.usedMasks[groupId] &= ~(1 << (oldValue - 1));
+			}
+			if (value != 0 && counts[value]++ == 0) {
+				this.usedMasks[groupId] |= 1 << (value - 1);
+			}
+		}
+		
+	}
+	
+}
@@ -50,6 +50,7 @@ import java.util.List;
 import org.sudowars.Model.Difficulty.Difficulty;
 import org.sudowars.Model.Difficulty.HumanDifficultyEvaluator;
 import org.sudowars.Model.Solver.BacktrackingSolver;
+import org.sudowars.Model.Solver.DancingLinksSolver;
 import org.sudowars.Model.Sudoku.Sudoku;
 import org.sudowars.Model.Sudoku.Field.Cell;
 import org.sudowars.Model.Sudoku.Field.DataCell;
@@ -65,11 +66,87 @@ public class Generator extends GeneratorBase implements Runnable {
 	//difficulty evaluator to identify the difficulty of the generated sudoku
 	private HumanDifficultyEvaluator diffEvaluator = new HumanDifficultyEvaluator();
 		
-	//solver to check if a sudoku has a unique solution
+	//solver to rate a sudoku with a unique solution by the strategies used to solve it
 	private BacktrackingSolver solver = new BacktrackingSolver();
 	
+	//solver to check if a sudoku has a unique solution
+	private DancingLinksSolver uniquenessSolver = new DancingLinksSolver();
+	
+	//whether the clues are dug one after the other, otherwise random clues are removed and the sudoku is reduced recursively
+	private boolean diggingIncrementally = true;
+	
+	//progress of the current generation
+	private int attemptCount;
+	private long attemptDeadline;
+	private Difficulty bestDifficulty;
+	
 	public Generator(SudokuFilePool sudokuFilePool) {
 		super(sudokuFilePool);
+		this.initialiseSolver();
+	}
+	
+	/**
+	 * Initialises a generator without a target {@link SudokuFilePool}, the sudokus can only be generated 
+	 * by {@link #createSudoku()}
+	 */
+	public Generator() {
+		super();
+		this.initialiseSolver();
+	}
+	
+	/**
+	 * Configures the solver which rates the generated sudokus
+	 */
+	private void initialiseSolver() {
+		//the bounds of the difficulties are calibrated on the solve steps of the strategy list executed on all groups
+		this.solver.setPropagatingSingles(false);
+		this.solver.setTrackingDirtyGroups(false);
+	}
+	
+	/**
+	 * Sets whether the clues of the base sudoku are dug one after the other in a random order. Each clue 
+	 * is checked once and only sudokus within the bounds of the initial cell count are rated. Otherwise 
+	 * random clues are removed until the sudoku is unique and the sudoku is reduced recursively.
+	 * @param diggingIncrementally <code>true</code> to dig the clues one after the other, <code>false</code> otherwise
+	 */
+	public void setDiggingIncrementally(boolean diggingIncrementally) {
+		this.diggingIncrementally = diggingIncrementally;
+	}
+	
+	/**
+	 * Returns whether the clues of the base sudoku are dug one after the other
+	 * @return <code>true</code> if the clues are dug one after the other, <code>false</code> otherwise
+	 */
+	public boolean isDiggingIncrementally() {
+		return this.diggingIncrementally;
+	}
+	
+	/**
+	 * Determines whether the current attempt has to be given up, because the generation was cancelled or 
+	 * the time budget of the attempt is used up
+	 * @return <code>true</code> if the attempt is over, <code>false</code> otherwise
+	 */
+	private boolean isAttemptOver() {
+		return this.isCancelled() || (this.attemptTimeBudget > 0 && System.nanoTime() - this.attemptDeadline > 0);
+	}
+	
+	/**
+	 * Keeps the given rated difficulty if it is closer to the target difficulty than the best one so far
+	 * @param difficulty the rated difficulty
+	 */
+	private void updateBestDifficulty(Difficulty difficulty) {
+		if (this.bestDifficulty == null || getTargetDistance(difficulty) < getTargetDistance(this.bestDifficulty)) {
+			this.bestDifficulty = difficulty;
+		}
+	}
+	
+	/**
+	 * Returns the distance of the given difficulty to the bounds of the target difficulty
+	 * @param difficulty the difficulty
+	 * @return the distance, <code>0</code> if the difficulty is within the bounds
+	 */
+	private double getTargetDistance(Difficulty difficulty) {
+		return Math.max(0, Math.max(this.targetDifficulty.getLowerBound() - difficulty.getValue(), difficulty.getValue() - this.targetDifficulty.getUpperBound()));
 	}
 	
 	/**
@@ -132,7 +209,7 @@ public class Generator extends GeneratorBase implements Runnable {
 		int maxTries = 3;
 		int countTries = 0;
 		
-		while (countTries < maxTries && initialCells.size() >= this.minInitialCellCount && changedCells.size() < initialCells.size()) {
+		while (countTries < maxTries && initialCells.size() >= this.minInitialCellCount && changedCells.size() < initialCells.size() && !this.isAttemptOver()) {
 		
 			//find random initial cell which has not been checked so far
 			int randomIndex = this.randGen.nextInt(initialCells.size());
@@ -145,21 +222,27 @@ public class Generator extends GeneratorBase implements Runnable {
 			//remove initial-flag from the random initial cell	
 			randomCell.setInitial(false);	
 			changedCells.add(randomCell);
+			this.notifyProgress(initialCells.size() - 1, this.attemptCount, this.bestDifficulty);
 			
 			//check if the sudoku (still) has an unique solution
-			if (this.solver.solve(getInitialField(sudoku), sudoku.getDependencyManager()) != null) {
+			if (this.uniquenessSolver.countSolutions(getInitialField(sudoku), sudoku.getDependencyManager(), 2) == 1) {
 				
 				Difficulty currentDifficulty = null;
 				
 				//unique solution found - if maximum initial cell count was reached check the difficulty, otherwise backtrack to reduce the number of initial cells
 				if (initialCells.size() <= this.maxInitialCellCount) {
 					
+					//solve the sudoku by strategies to collect the strategies used for the rating
+					this.solver.solve(getInitialField(sudoku), sudoku.getDependencyManager());
+					
 					//Evaluate the current sudoku
 					currentDifficulty = this.diffEvaluator.evaluateDifficulty(sudoku, this.solver.getUsedStrategies());
 					
 					//if difficulty could be found check if it is the searched difficulty
 					if (currentDifficulty != null) {
 						
+						this.updateBestDifficulty(currentDifficulty);
+						
 						try {
 							this.targetDifficulty.setValue(currentDifficulty.getValue());
 							resultSudoku = sudoku;
@@ -168,8 +251,8 @@ public class Generator extends GeneratorBase implements Runnable {
 						}
 						
 						//if difficulty is not the the searched one add generated sudoku to the pool
-						if (resultSudoku == null) {
-							this.targetFilePool.addSudoku(sudoku.clone(), currentDifficulty, true);
+						if (resultSudoku == null && this.targetFilePool != null) {
+							this.targetFilePool.addSudoku(sudoku.clone(), currentDifficulty, false);
 						}
 					}
 					
@@ -200,7 +283,7 @@ public class Generator extends GeneratorBase implements Runnable {
 	 * @param cellList the cell list
 	 * @return random initial cell from the given list, <code>null</code> if no initial cell could be found
 	 */
-	private Cell getRandomInitialCell(List<Cell> cellList) {
+	private Cell getRandomInitialCell(List<? extends Cell> cellList) {
 		
 		if (cellList.size() == 0) return null;
 		
@@ -240,7 +323,7 @@ public class Generator extends GeneratorBase implements Runnable {
 		while (uninitialisedCells < cellsToUninitialise) {
 			
 			//search random initial cell			
-			Cell randomInitialCell = getRandomInitialCell(sudoku.getField().convert().getCells());
+			Cell randomInitialCell = getRandomInitialCell(sudoku.getField().getCells());
 			assert (randomInitialCell != null);
 			
 			//set initial to false
@@ -271,16 +354,87 @@ public class Generator extends GeneratorBase implements Runnable {
 			
 			this.reduceInitialCells(this.baseSudoku, this.baseSudoku.getField().getCells().size() - this.maxInitialCellCount);
 						
-		} while (this.solver.solve(getInitialField(this.baseSudoku), this.baseSudoku.getDependencyManager()) == null);
+		} while (!this.isAttemptOver() && this.uniquenessSolver.countSolutions(getInitialField(this.baseSudoku), this.baseSudoku.getDependencyManager(), 2) != 1);
 		 
 	}
 	
 	/**
-	 * Generates a sudoku with the given properties and adds it to the given pool
+	 * Generates a sudoku with the difficulty defined in the properties by digging the clues of the base 
+	 * sudoku one after the other in a random order. A clue is dug if the sudoku stays unique. The sudoku 
+	 * is rated after every dug clue as soon as the number of initial cells is within the bounds.
+	 * @return sudoku with the given difficulty, <code>null</code> if no sudoku could be found with this order
+	 */
+	private Sudoku<DataCell> digSudoku() {
+		
+		Field<DataCell> field = this.baseSudoku.getField();
+		int cellCount = field.getCells().size();
+		
+		//shuffle the order of the cells to dig
+		int[] digOrder = new int[cellCount];
+		for (int i = 0; i < cellCount; i++) {
+			int j = this.randGen.nextInt(i + 1);
+			digOrder[i] = digOrder[j];
+			digOrder[j] = i;
+		}
+		
+		for (DataCell cell : field.getCells()) {
+			cell.setInitial(true);
+		}
+		
+		Sudoku<DataCell> resultSudoku = null;
+		this.uniquenessSolver.startDigging(field, this.baseSudoku.getDependencyManager(), digOrder);
+		
+		try {
+			
+			while (resultSudoku == null && this.uniquenessSolver.getClueCount() > this.minInitialCellCount && this.uniquenessSolver.getNextCellToDig() >= 0 && !this.isAttemptOver()) {
+				
+				//keep the clue if the sudoku would not be unique without it
+				int cellIndex = this.uniquenessSolver.getNextCellToDig();
+				if (!this.uniquenessSolver.digNextClue()) continue;
+				field.getCell(cellIndex).setInitial(false);
+				this.notifyProgress(this.uniquenessSolver.getClueCount(), this.attemptCount, this.bestDifficulty);
+				
+				//rate the sudoku only if the number of initial cells is within the bounds
+				if (this.uniquenessSolver.getClueCount() > this.maxInitialCellCount) continue;
+				
+				//solve the sudoku by strategies to collect the strategies used for the rating
+				this.solver.solve(getInitialField(this.baseSudoku), this.baseSudoku.getDependencyManager());
+				Difficulty currentDifficulty = this.diffEvaluator.evaluateDifficulty(this.baseSudoku, this.solver.getUsedStrategies());
+				if (currentDifficulty == null) continue;
+				this.updateBestDifficulty(currentDifficulty);
+				
+				try {
+					this.targetDifficulty.setValue(currentDifficulty.getValue());
+					resultSudoku = this.baseSudoku;
+				} catch (IllegalArgumentException ex) {
+					
+					//add generated sudoku with another difficulty to the pool
+					if (this.targetFilePool != null) {
+						this.targetFilePool.addSudoku(this.baseSudoku.clone(), currentDifficulty, false);
+					}
+					
+					//digging more clues does not make the sudoku easier
+					if (currentDifficulty.getValue() > this.targetDifficulty.getUpperBound()) break;
+					
+				}
+				
+			}
+			
+		} finally {
+			this.uniquenessSolver.stopDigging();
+		}
+		
+		return resultSudoku;
+		
+	}
+	
+	/**
+	 * Generates a sudoku with the given properties without adding it to a pool. Attempts which exceed 
+	 * the time budget are given up and a new attempt is started.
+	 * @return the generated sudoku, <code>null</code> if the generation was cancelled
 	 * @throws IllegalArgumentException if not all needed properties are set
 	 */
-	@Override
-	public void run() throws IllegalArgumentException {
+	public Sudoku<DataCell> createSudoku() throws IllegalArgumentException {
 		
 		//checks if properties are set
 		if (this.targetDifficulty == null) {
@@ -291,17 +445,51 @@ public class Generator extends GeneratorBase implements Runnable {
 			throw new IllegalArgumentException("given sudoku is null"); 
 		}
 		
-		Sudoku<DataCell> resultSudoku;
-		do {		
-			//reduce initial field to a minimum
-			this.minimiseBaseSudoku();
-			//generate sudoku with the given difficulty
-			resultSudoku = this.generateSudoku(this.baseSudoku);
+		this.attemptCount = 0;
+		this.bestDifficulty = null;
+		
+		Sudoku<DataCell> resultSudoku = null;
+		while (resultSudoku == null && !this.isCancelled()) {
 			
-		} while (resultSudoku == null);
+			this.attemptCount++;
+			this.attemptDeadline = System.nanoTime() + this.attemptTimeBudget * 1000000L;
+			this.notifyProgress(this.baseSudoku.getField().getCells().size(), this.attemptCount, this.bestDifficulty);
+			
+			if (this.diggingIncrementally) {
+				//dig the clues in a new random order
+				resultSudoku = this.digSudoku();
+			} else {
+				//reduce initial field to a minimum
+				this.minimiseBaseSudoku();
+				//generate sudoku with the given difficulty
+				if (!this.isAttemptOver()) {
+					resultSudoku = this.generateSudoku(this.baseSudoku);
+				}
+			}
+			
+		}
+		
+		return resultSudoku;
+		
+	}
+	
+	/**
+	 * Generates a sudoku with the given properties and adds it to the given pool, unless the generation is cancelled
+	 * @throws IllegalArgumentException if not all needed properties are set or the generator has no target pool
+	 */
+	@Override
+	public void run() throws IllegalArgumentException {
+		
+		if (this.targetFilePool == null) {
+			throw new IllegalArgumentException("target pool not set");
+		}
+		
+		Sudoku<DataCell> resultSudoku = this.createSudoku();
 		
 		//add sudoku to the pool 
-		this.targetFilePool.addSudoku(resultSudoku, this.targetDifficulty, true);
+		if (resultSudoku != null) {
+			this.targetFilePool.addSudoku(resultSudoku, this.targetDifficulty, false);
+		}
 		
 	}
 	
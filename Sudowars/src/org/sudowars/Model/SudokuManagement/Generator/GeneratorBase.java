@@ -44,7 +44,9 @@
  ******************************************************************************/
 package org.sudowars.Model.SudokuManagement.Generator;
 
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.sudowars.Model.Difficulty.Difficulty;
 import org.sudowars.Model.Difficulty.DifficultyEvaluator;
@@ -68,8 +70,22 @@ public abstract class GeneratorBase implements Runnable {
 	//defines bounds for the number of initial cells the field holds
 	protected int maxInitialCellCount; // more initial cells makes it too easy to find a solution
 	protected int minInitialCellCount; // minimum number of initial cells to get a unique solvable sudoku
+	
+	//wall-clock time of an attempt in milliseconds, 0 for no limit
+	protected long attemptTimeBudget = 0;
+	private volatile boolean cancelled = false;
+	
+	//listeners may be added by another thread while generating
+	private final List<GeneratorProgressEventListener> registeredOnProgressObservers = new CopyOnWriteArrayList<GeneratorProgressEventListener>();
 		
 	
+	/**
+	 * Initialises a generator without a target {@link SudokuFilePool}, the generated sudokus are not added to a pool
+	 */
+	protected GeneratorBase() {
+		this.targetFilePool = null;
+	}
+	
 	/**
 	 * Generates a new {@link Sudoku} with the given {@link Difficulty} from the given fully-filled base-{@link Sudoku}
 	 *
@@ -124,6 +140,85 @@ public abstract class GeneratorBase implements Runnable {
 		this.baseSudoku = baseSudoku;
 		
 	}
+	
+	/**
+	 * Sets the wall-clock time an attempt to generate a sudoku may take. An attempt which takes longer is 
+	 * given up and the generator starts a new attempt.
+	 *
+	 * @param milliseconds the time budget of an attempt in milliseconds, <code>0</code> for no limit
+	 * @throws IllegalArgumentException if the given time budget is negative
+	 */
+	public void setAttemptTimeBudget(long milliseconds) throws IllegalArgumentException {
+		
+		if (milliseconds < 0) {
+			throw new IllegalArgumentException("Given time budget is negative");
+		}
+		
+		this.attemptTimeBudget = milliseconds;
+		
+	}
+	
+	/**
+	 * Returns the wall-clock time an attempt to generate a sudoku may take.
+	 *
+	 * @return the time budget of an attempt in milliseconds, <code>0</code> for no limit
+	 */
+	public long getAttemptTimeBudget() {
+		return this.attemptTimeBudget;
+	}
+	
+	/**
+	 * Cancels the generation. The generator stops at its next check and does not generate a sudoku. 
+	 * This method can be called by any thread, a cancelled generator can not be used again.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+	}
+	
+	/**
+	 * Determines whether the generation was cancelled by {@link #cancel()} or the generating thread was interrupted.
+	 *
+	 * @return <code>true</code> if the generation has to stop, otherwise <code>false</code>
+	 */
+	protected boolean isCancelled() {
+		return this.cancelled || Thread.currentThread().isInterrupted();
+	}
+	
+	/**
+	 * Registers a listener to the progress of the generation.
+	 *
+	 * @param listener A reference to an {@link GeneratorProgressEventListener} instance.
+	 * @return <code>true</code> if the listener was registered successfully, otherwise <code>false</code>
+	 */
+	public boolean addOnProgressListener(GeneratorProgressEventListener listener) {
+		return this.registeredOnProgressObservers.add(listener);
+	}
+	
+	/**
+	 * Unregisters a listener to the progress of the generation.
+	 *
+	 * @param listener The {@link GeneratorProgressEventListener} to remove.
+	 * @return <code>true</code> if the listener was removed successfully, otherwise <code>false</code>
+	 */
+	public boolean removeOnProgressListener(GeneratorProgressEventListener listener) {
+		return this.registeredOnProgressObservers.remove(listener);
+	}
+	
+	/**
+	 * Notifies the registered listeners about the progress of the generation.
+	 *
+	 * @param clueCount the number of initial cells of the sudoku in progress
+	 * @param attemptCount the number of attempts started so far
+	 * @param bestDifficulty the rated {@link Difficulty} closest to the target, or <code>null</code> if no sudoku was rated so far
+	 */
+	protected void notifyProgress(int clueCount, int attemptCount, Difficulty bestDifficulty) {
+		
+		if (this.registeredOnProgressObservers.isEmpty()) return;
+		
+		GeneratorProgressEvent event = new GeneratorProgressEvent(this, clueCount, attemptCount, bestDifficulty);
+		for (GeneratorProgressEventListener listener : this.registeredOnProgressObservers) {
+			listener.onProgress(event);
+		}
+		
+	}
 }
-
-
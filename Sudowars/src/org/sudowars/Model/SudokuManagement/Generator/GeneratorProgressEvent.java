@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.SudokuManagement.Generator;
+
+import org.sudowars.Model.Difficulty.Difficulty;
+
+/**
+ * Class to hold the event data of the progress event of a {@link GeneratorBase}.
+ */
+public class GeneratorProgressEvent {
+	
+	private final GeneratorBase generator;
+	private final int clueCount;
+	private final int attemptCount;
+	private final Difficulty bestDifficulty;
+	
+	/**
+	 * Initializes a new instance of the {@link GeneratorProgressEvent} class.
+	 * @param source the event source
+	 * @param clueCount the number of initial cells of the sudoku in progress
+	 * @param attemptCount the number of attempts started so far
+	 * @param bestDifficulty the rated {@link Difficulty} closest to the target, or {@code null} if no sudoku was rated so far
+	 * @throws IllegalArgumentException if the event source was {@code null}
+	 */
+	protected GeneratorProgressEvent(GeneratorBase source, int clueCount, int attemptCount, Difficulty bestDifficulty) throws IllegalArgumentException {
+		if (source == null) {
+			throw new IllegalArgumentException("given generator cannot be null.");
+		}
+		this.generator = source;
+		this.clueCount = clueCount;
+		this.attemptCount = attemptCount;
+		this.bestDifficulty = bestDifficulty;
+	}
+	
+	/**
+	 * Gets the number of initial cells of the sudoku in progress.
+	 * @return the number of clues remaining
+	 */
+	public int getClueCount() {
+		return this.clueCount;
+	}
+	
+	/**
+	 * Gets the number of attempts started so far, including the current one.
+	 * @return the number of attempts
+	 */
+	public int getAttemptCount() {
+		return this.attemptCount;
+	}
+	
+	/**
+	 * Gets the rated {@link Difficulty} closest to the target difficulty so far.
+	 * @return the best difficulty, or {@code null} if no sudoku was rated so far
+	 */
+	public Difficulty getBestDifficulty() {
+		return this.bestDifficulty;
+	}
+	
+	/**
+	 * Gets the source of the event.
+	 * @return The generator which triggered the event.
+	 */
+	public GeneratorBase getGenerator() {
+		return this.generator;
+	}
+}
@@ -0,0 +1,495 @@
+/*******************************************************************************
+ * Copyright (c) 2011 - 2012 Adrian Vielsack, Christof Urbaczek, Florian Rosenthal, Michael Hoff, Moritz Lüdecke, Philip Flohr.
+ * 
+ * This file is part of Sudowars.
+ * 
+ * Sudowars is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Sudowars is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Sudowars.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * 
+ * Diese Datei ist Teil von Sudowars.
+ * 
+ * Sudowars ist Freie Software: Sie können es unter den Bedingungen
+ * der GNU General Public License, wie von der Free Software Foundation,
+ * Version 3 der Lizenz oder (nach Ihrer Option) jeder späteren
+ * veröffentlichten Version, weiterverbreiten und/oder modifizieren.
+ * 
+ * Sudowars wird in der Hoffnung, dass es nützlich sein wird, aber
+ * OHNE JEDE GEWÄHELEISTUNG, bereitgestellt; sogar ohne die implizite
+ * Gewährleistung der MARKTFÄHIGKEIT oder EIGNUNG FÜR EINEN BESTIMMTEN ZWECK.
+ * Siehe die GNU General Public License für weitere Details.
+ * 
+ * Sie sollten eine Kopie der GNU General Public License zusammen mit diesem
+ * Programm erhalten haben. Wenn nicht, siehe <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ * initial API and implementation:
+ * Adrian Vielsack
+ * Christof Urbaczek
+ * Florian Rosenthal
+ * Michael Hoff
+ * Moritz Lüdecke
+ * Philip Flohr 
+ ******************************************************************************/
+package org.sudowars.Model.SudokuManagement.Generator;
+
+import java.io.Serializable;
+import java.util.Random;
+
+import org.sudowars.Model.Sudoku.Sudoku;
+import org.sudowars.Model.Sudoku.Field.DataCell;
+import org.sudowars.Model.Sudoku.Field.DataCellBuilder;
+import org.sudowars.Model.Sudoku.Field.Field;
+import org.sudowars.Model.Sudoku.Field.FieldBuilder;
+import org.sudowars.Model.Sudoku.Field.FieldStructure;
+
+/**
+ * A {@link SudokuPermutation} is a transformation of a square {@link Sudoku} given by a permutation of the cell 
+ * indices and a permutation of the values. Permutations are composed by {@link #then(SudokuPermutation)} and applied 
+ * to a {@link Field} in a single pass over its cells. The index of the cell at x and y is <code>x + y * size</code>.
+ * <br>
+ * Relabelling, rotating, mirroring and transposing keep a sudoku of the standard ruleset valid, as well as swapping 
+ * bands, stacks and rows or columns of the same band or stack.
+ */
+public final class SudokuPermutation implements Serializable {
+	
+	private static final long serialVersionUID = -6470146186716530711L;
+	
+	private final int size;
+	
+	//index of the cell whose value moves to the cell with the index, new value of every value
+	private final int[] cellSource;
+	private final int[] values;
+	
+	/**
+	 * Initializes a new instance of the {@link SudokuPermutation} class.
+	 *
+	 * @param size the width and height of the field
+	 * @param cellSource the index of the source cell of every cell
+	 * @param values the new value of every value, <code>0</code> is not changed
+	 */
+	private SudokuPermutation(int size, int[] cellSource, int[] values) {
+		this.size = size;
+		this.cellSource = cellSource;
+		this.values = values;
+	}
+	
+	/**
+	 * Returns the permutation which does not change a sudoku.
+	 *
+	 * @param size the width and height of the field
+	 * @return the identity permutation
+	 * @throws IllegalArgumentException if the size is smaller than one
+	 */
+	public static SudokuPermutation identity(int size) throws IllegalArgumentException {
+		
+		if (size < 1) {
+			throw new IllegalArgumentException("size has to be greater than zero.");
+		}
+		
+		int[] cellSource = new int[size * size];
+		for (int i = 0; i < cellSource.length; i++) {
+			cellSource[i] = i;
+		}
+		
+		int[] values = new int[size + 1];
+		for (int value = 0; value <= size; value++) {
+			values[value] = value;
+		}
+		
+		return new SudokuPermutation(size, cellSource, values);
+		
+	}
+	
+	/**
+	 * Returns the permutation which changes every value <code>v</code> to <code>newValues[v - 1]</code>.
+	 *
+	 * @param newValues the new values of the values from one to the size of the field
+	 * @return the relabelling permutation
+	 * @throws IllegalArgumentException if the new values are not a permutation of the values from one to their count
+	 */
+	public static SudokuPermutation relabel(int[] newValues) throws IllegalArgumentException {
+		
+		if (newValues == null) {
+			throw new IllegalArgumentException("given values cannot be null.");
+		}
+		
+		SudokuPermutation result = identity(newValues.length);
+		boolean[] used = new boolean[newValues.length + 1];
+		for (int value = 1; value <= newValues.length; value++) {
+			int newValue = newValues[value - 1];
+			if (newValue < 1 || newValue > newValues.length || used[newValue]) {
+				throw new IllegalArgumentException("given values are not a permutation.");
+			}
+			used[newValue] = true;
+			result.values[value] = newValue;
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Returns the permutation which swaps two rows. The sudoku stays valid if both rows belong to the same band.
+	 *
+	 * @param size the width and height of the field
+	 * @param row1 the first row
+	 * @param row2 the second row
+	 * @return the row swapping permutation
+	 * @throws IllegalArgumentException if a row is not within the field
+	 */
+	public static SudokuPermutation swapRows(int size, int row1, int row2) throws IllegalArgumentException {
+		
+		SudokuPermutation result = identity(size);
+		checkLine(size, row1);
+		checkLine(size, row2);
+		
+		for (int x = 0; x < size; x++) {
+			result.cellSource[x + row1 * size] = x + row2 * size;
+			result.cellSource[x + row2 * size] = x + row1 * size;
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Returns the permutation which swaps two columns. The sudoku stays valid if both columns belong to the same stack.
+	 *
+	 * @param size the width and height of the field
+	 * @param column1 the first column
+	 * @param column2 the second column
+	 * @return the column swapping permutation
+	 * @throws IllegalArgumentException if a column is not within the field
+	 */
+	public static SudokuPermutation swapColumns(int size, int column1, int column2) throws IllegalArgumentException {
+		return transpose(size).then(swapRows(size, column1, column2)).then(transpose(size));
+	}
+	
+	/**
+	 * Returns the permutation which swaps two bands, i.e. two rows of blocks.
+	 *
+	 * @param size the width and height of the field
+	 * @param blockSize the width and height of a block
+	 * @param band1 the first band
+	 * @param band2 the second band
+	 * @return the band swapping permutation
+	 * @throws IllegalArgumentException if the block size does not divide the size or a band is not within the field
+	 */
+	public static SudokuPermutation swapBands(int size, int blockSize, int band1, int band2) throws IllegalArgumentException {
+		
+		if (blockSize < 1 || size % blockSize != 0) {
+			throw new IllegalArgumentException("block size has to divide the size.");
+		}
+		checkLine(size / blockSize, band1);
+		checkLine(size / blockSize, band2);
+		
+		SudokuPermutation result = identity(size);
+		for (int row = 0; row < blockSize; row++) {
+			result = result.then(swapRows(size, band1 * blockSize + row, band2 * blockSize + row));
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Returns the permutation which swaps two stacks, i.e. two columns of blocks.
+	 *
+	 * @param size the width and height of the field
+	 * @param blockSize the width and height of a block
+	 * @param stack1 the first stack
+	 * @param stack2 the second stack
+	 * @return the stack swapping permutation
+	 * @throws IllegalArgumentException if the block size does not divide the size or a stack is not within the field
+	 */
+	public static SudokuPermutation swapStacks(int size, int blockSize, int stack1, int stack2) throws IllegalArgumentException {
+		return transpose(size).then(swapBands(size, blockSize, stack1, stack2)).then(transpose(size));
+	}
+	
+	/**
+	 * Returns the permutation which mirrors the field at its main diagonal.
+	 *
+	 * @param size the width and height of the field
+	 * @return the transposing permutation
+	 * @throws IllegalArgumentException if the size is smaller than one
+	 */
+	public static SudokuPermutation transpose(int size) throws IllegalArgumentException {
+		
+		SudokuPermutation result = identity(size);
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				result.cellSource[x + y * size] = y + x * size;
+			}
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Returns the permutation which mirrors the field at its vertical axis, so the left and the right side are swapped.
+	 *
+	 * @param size the width and height of the field
+	 * @return the mirroring permutation
+	 * @throws IllegalArgumentException if the size is smaller than one
+	 */
+	public static SudokuPermutation mirrorLeftRight(int size) throws IllegalArgumentException {
+		
+		SudokuPermutation result = identity(size);
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				result.cellSource[x + y * size] = (size - 1 - x) + y * size;
+			}
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Returns the permutation which mirrors the field at its horizontal axis, so the top and the bottom are swapped.
+	 *
+	 * @param size the width and height of the field
+	 * @return the mirroring permutation
+	 * @throws IllegalArgumentException if the size is smaller than one
+	 */
+	public static SudokuPermutation mirrorTopBottom(int size) throws IllegalArgumentException {
+		return transpose(size).then(mirrorLeftRight(size)).then(transpose(size));
+	}
+	
+	/**
+	 * Returns the permutation which rotates the field clockwise.
+	 *
+	 * @param size the width and height of the field
+	 * @param quarterTurns the number of rotations by 90 degrees, negative numbers rotate counterclockwise
+	 * @return the rotating permutation
+	 * @throws IllegalArgumentException if the size is smaller than one
+	 */
+	public static SudokuPermutation rotate(int size, int quarterTurns) throws IllegalArgumentException {
+		
+		//a clockwise quarter turn moves the left column to the top row
+		SudokuPermutation quarterTurn = transpose(size).then(mirrorLeftRight(size));
+		
+		SudokuPermutation result = identity(size);
+		for (int i = 0; i < ((quarterTurns % 4) + 4) % 4; i++) {
+			result = result.then(quarterTurn);
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Returns a random permutation keeping a sudoku of the standard ruleset valid. The bands, the rows of every band, 
+	 * the stacks, the columns of every stack and the values are shuffled and the field is transposed with a 
+	 * probability of one half. This covers all rotations and mirrorings as well.
+	 *
+	 * @param size the width and height of the field
+	 * @param blockSize the width and height of a block
+	 * @param random the random number generator
+	 * @return the random permutation
+	 * @throws IllegalArgumentException if the block size does not divide the size or no random number generator was given
+	 */
+	public static SudokuPermutation random(int size, int blockSize, Random random) throws IllegalArgumentException {
+		
+		if (blockSize < 1 || size % blockSize != 0) {
+			throw new IllegalArgumentException("block size has to divide the size.");
+		}
+		
+		if (random == null) {
+			throw new IllegalArgumentException("given random number generator cannot be null.");
+		}
+		
+		int[] rowSource = shuffleLines(size, blockSize, random);
+		int[] columnSource = shuffleLines(size, blockSize, random);
+		boolean transposed = random.nextBoolean();
+		
+		SudokuPermutation result = identity(size);
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				result.cellSource[x + y * size] = transposed ? rowSource[y] + columnSource[x] * size : columnSource[x] + rowSource[y] * size;
+			}
+		}
+		
+		int[] newValues = shuffle(size, random);
+		for (int value = 1; value <= size; value++) {
+			result.values[value] = newValues[value - 1] + 1;
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Shuffles the lines of a field by shuffling the blocks and the lines inside of every block.
+	 * @param size the number of lines
+	 * @param blockSize the number of lines of a block
+	 * @param random the random number generator
+	 * @return the source line of every line
+	 */
+	private static int[] shuffleLines(int size, int blockSize, Random random) {
+		
+		int[] blockOrder = shuffle(size / blockSize, random);
+		int[] result = new int[size];
+		for (int block = 0; block < blockOrder.length; block++) {
+			int[] lineOrder = shuffle(blockSize, random);
+			for (int line = 0; line < blockSize; line++) {
+				result[block * blockSize + line] = blockOrder[block] * blockSize + lineOrder[line];
+			}
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Returns a random permutation of the numbers from zero to the given count minus one.
+	 * @param count the count of numbers
+	 * @param random the random number generator
+	 * @return the shuffled numbers
+	 */
+	private static int[] shuffle(int count, Random random) {
+		
+		int[] result = new int[count];
+		for (int i = 0; i < count; i++) {
+			int j = random.nextInt(i + 1);
+			result[i] = result[j];
+			result[j] = i;
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Checks if a line lies within the field
+	 * @param count the number of lines
+	 * @param line the line to check
+	 * @throws IllegalArgumentException if the line is not within the field
+	 */
+	private static void checkLine(int count, int line) throws IllegalArgumentException {
+		if (line < 0 || line >= count) {
+			throw new IllegalArgumentException("line is not within the field.");
+		}
+	}
+	
+	/**
+	 * Returns the permutation which applies this permutation first and the given one afterwards.
+	 *
+	 * @param next the permutation to apply afterwards
+	 * @return the composed permutation
+	 * @throws IllegalArgumentException if no permutation was given or it has another size
+	 */
+	public SudokuPermutation then(SudokuPermutation next) throws IllegalArgumentException {
+		
+		if (next == null || next.size != this.size) {
+			throw new IllegalArgumentException("given permutation has another size.");
+		}
+		
+		int[] cellSource = new int[this.cellSource.length];
+		for (int i = 0; i < cellSource.length; i++) {
+			cellSource[i] = this.cellSource[next.cellSource[i]];
+		}
+		
+		int[] values = new int[this.values.length];
+		for (int value = 0; value < values.length; value++) {
+			values[value] = next.values[this.values[value]];
+		}
+		
+		return new SudokuPermutation(this.size, cellSource, values);
+		
+	}
+	
+	/**
+	 * Returns the width and height of the fields the permutation can be applied to.
+	 * @return the size of the field
+	 */
+	public int getSize() {
+		return this.size;
+	}
+	
+	/**
+	 * Returns the index of the cell whose value and initial state move to the cell with the given index.
+	 * @param index the index of the cell
+	 * @return the index of the source cell
+	 * @throws IllegalArgumentException if the index is not within the field
+	 */
+	public int getSourceIndex(int index) throws IllegalArgumentException {
+		if (index < 0 || index >= this.cellSource.length) {
+			throw new IllegalArgumentException("index is not within the field.");
+		}
+		return this.cellSource[index];
+	}
+	
+	/**
+	 * Returns the new value of the given value.
+	 * @param value the value
+	 * @return the new value, {@link DataCell#NOT_SET} for {@link DataCell#NOT_SET}
+	 * @throws IllegalArgumentException if the value is bigger than the size
+	 */
+	public int getValue(int value) throws IllegalArgumentException {
+		if (value < 0 || value >= this.values.length) {
+			throw new IllegalArgumentException("value is not within the field.");
+		}
+		return this.values[value];
+	}
+	
+	/**
+	 * Applies the permutation to a copy of the given {@link Field}, the given {@link Field} is not changed.
+	 *
+	 * @param field the field to transform
+	 * @return the transformed field
+	 * @throws IllegalArgumentException if no field was given, its size does not match or it holds a value bigger than the size
+	 */
+	public Field<DataCell> apply(Field<DataCell> field) throws IllegalArgumentException {
+		
+		if (field == null) {
+			throw new IllegalArgumentException("given field cannot be null.");
+		}
+		
+		FieldStructure structure = field.getStructure();
+		if (structure.getWidth() != this.size || structure.getHeight() != this.size || structure.getUsedSlotCount() != this.cellSource.length) {
+			throw new IllegalArgumentException("given field does not match the size of the permutation.");
+		}
+		
+		Field<DataCell> result = new FieldBuilder<DataCell>().build(structure, new DataCellBuilder());
+		for (int i = 0; i < this.cellSource.length; i++) {
+			DataCell source = field.getCell(this.cellSource[i]);
+			DataCell target = result.getCell(i);
+			target.setValue(this.getValue(source.getValue()));
+			target.setInitial(source.isInitial());
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Applies the permutation to a copy of the given {@link Sudoku}, the given {@link Sudoku} is not changed.
+	 *
+	 * @param sudoku the sudoku to transform
+	 * @return the transformed sudoku with the same {@link org.sudowars.Model.Sudoku.RuleManagement.DependencyManager}
+	 * @throws IllegalArgumentException if no sudoku was given, its size does not match or it holds a value bigger than the size
+	 */
+	public Sudoku<DataCell> apply(Sudoku<DataCell> sudoku) throws IllegalArgumentException {
+		
+		if (sudoku == null) {
+			throw new IllegalArgumentException("given sudoku cannot be null.");
+		}
+		
+		return new Sudoku<DataCell>(this.apply(sudoku.getField()), sudoku.getDependencyManager());
+		
+	}
+}
@@ -59,9 +59,9 @@ public abstract class TransformerBase implements Serializable {
 	/**
 	 * Transforms a given {@link Sudoku} into a Sudoku with another {@link Field} arrangement
 	 *
-	 * @param sudoku the {@link Sudoku} to transform
+	 * @param sudoku the {@link Sudoku} to transform, it is not changed
 	 *
-	 * @return the transformed {@link Sudoku}
+	 * @return the transformed copy of the {@link Sudoku}
 	 */
 	public abstract Sudoku<DataCell> transformSudoku(Sudoku<DataCell> sudoku);
 
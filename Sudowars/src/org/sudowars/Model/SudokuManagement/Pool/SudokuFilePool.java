@@ -50,8 +50,13 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import android.app.Service;
 import android.content.Intent;
@@ -86,9 +91,10 @@ public class SudokuFilePool extends Service implements SudokuPool {
 	private static final long serialVersionUID = -8387498223151949658L;
 	private static final String SUDOKU_FILE_NAME = "%s.ser";
 	
-	private static final int MIN_SUDOKU_COUNT = 5;
 	private static final int MAX_SUDOKU_COUNT = 30;
 	private static final int WORKER_THREADS_PRIORITY = 1;
+	private static final int GENERATION_WORKER_COUNT = 1;
+	private static final long GENERATION_ATTEMPT_TIME_BUDGET = 10000;
 	private static final String[] usedDifficulties = new String[] {	new DifficultyEasy().toString(),
 																	new DifficultyMedium().toString(),
 																	new DifficultyHard().toString() };
@@ -102,6 +108,7 @@ public class SudokuFilePool extends Service implements SudokuPool {
 	private final TransformerBase transformer;
 	private final Random randomNumberGenerator;
 	private final IBinder binder = new SudokuFilePoolBinder();
+	private final GenerationScheduler generationScheduler;
 	
 	private static boolean initializing = false;
 	private static PoolInitializer initializer = null;
@@ -125,6 +132,7 @@ public class SudokuFilePool extends Service implements SudokuPool {
 		
 		this.dirs = new File[usedDifficulties.length * sizes.length];
 		initializeDirectoryStructure();
+		this.generationScheduler = new GenerationScheduler();
 			
 		if (this.empty() && !getInitializing()) {
 			setInitializing(true);
@@ -185,23 +193,274 @@ public class SudokuFilePool extends Service implements SudokuPool {
 	}
 	
 	/**
-	 * Starts the generation of a new sudoku with the given structure and difficulty:
-	 * <br>First a solved sudoko is transformed and then passed to the generator, generating a new one.
+	 * Returns the bucket of the sudokus with the given structure and difficulty, which is the index of their directory.
 	 *
-	 * @param baseSudoku The {@link Sudoku} to be the base of the one to generate.
-	 * @param difficulty The {@link Difficulty} of the sudoku to generate.
+	 * @param structure The {@link FieldStructure} of the sudokus.
+	 * @param difficulty The {@link Difficulty} of the sudokus.
+	 *
+	 * @return the bucket of the sudokus, <code>-1</code> if the pool does not hold sudokus with the given structure and difficulty
+	 */
+	private static int getBucket(FieldStructure structure, Difficulty difficulty) {
+		assert structure != null && difficulty != null;
+		
+		for (int i = 0; i < sizes.length; i++) {
+			if (sizes[i].getWidth() != structure.getWidth() || sizes[i].getHeight() != structure.getHeight()) continue;
+			for (int j = 0; j < usedDifficulties.length; j++) {
+				if (usedDifficulties[j].equals(difficulty.toString())) {
+					return i * usedDifficulties.length + j;
+				}
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Creates a new instance of the {@link Difficulty} of the given bucket.
+	 *
+	 * @param bucket the bucket
+	 *
+	 * @return the {@link Difficulty} of the sudokus of the bucket
+	 */
+	private static Difficulty createDifficulty(int bucket) {
+		//same order as the used difficulties
+		switch (bucket % usedDifficulties.length) {
+			case 0 : return new DifficultyEasy();
+			case 1 : return new DifficultyMedium();
+			default : return new DifficultyHard();
+		}
+	}
+	
+	/**
+	 * Schedules the generation of sudokus on a fixed number of worker threads. A bucket, i.e. the sudokus of a 
+	 * structure and difficulty, is enriched up to {@link SudokuFilePool#MAX_SUDOKU_COUNT} one sudoku after the other, 
+	 * when a sudoku was extracted from it. A bucket is scheduled at most once at a time. 
+	 * A free worker generates a sudoku of the scheduled bucket which is extracted most often and is most empty.
+	 * <br>
+	 * While the scheduler is paused the running generators are cancelled and their buckets stay scheduled.
+	 */
+	private class GenerationScheduler {
+		
+		private final ExecutorService executor;
+		private final int[] extractionCounts;
+		private final boolean[] pending;
+		private final boolean[] running;
+		private final GeneratorBase[] generators;
+		private final List<Sudoku<DataCell>> baseSudokus;
+		private boolean paused = false;
+		private boolean shutDown = false;
+		
+		/**
+		 * Initializes a new instance of the {@link GenerationScheduler} class.
+		 */
+		private GenerationScheduler() {
+			this.executor = Executors.newFixedThreadPool(GENERATION_WORKER_COUNT, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread worker = new Thread(threadGroup, runnable, "Pool generator");
+					worker.setPriority(WORKER_THREADS_PRIORITY);
+					return worker;
+				}
+			});
+			
+			this.extractionCounts = new int[dirs.length];
+			this.pending = new boolean[dirs.length];
+			this.running = new boolean[dirs.length];
+			this.generators = new GeneratorBase[dirs.length];
+			this.baseSudokus = new ArrayList<Sudoku<DataCell>>(dirs.length);
+			for (int i = 0; i < dirs.length; i++) {
+				this.baseSudokus.add(null);
+			}
+		}
+		
+		/**
+		 * Counts the extraction of a sudoku, which is the base of the sudokus generated for its bucket.
+		 *
+		 * @param bucket the bucket of the extracted sudoku
+		 * @param sudoku the extracted sudoku
+		 */
+		private synchronized void sudokuExtracted(int bucket, Sudoku<DataCell> sudoku) {
+			this.extractionCounts[bucket]++;
+			this.baseSudokus.set(bucket, sudoku.clone());
+		}
+		
+		/**
+		 * Schedules the generation of a sudoku for the given bucket, unless the bucket is scheduled or 
+		 * generated already or there is no base sudoku for it.
+		 *
+		 * @param bucket the bucket to refill
+		 */
+		private synchronized void schedule(int bucket) {
+			if (this.shutDown || this.pending[bucket] || this.running[bucket] || this.baseSudokus.get(bucket) == null) return;
+			
+			this.pending[bucket] = true;
+			if (!this.paused) {
+				this.startWorker();
+			}
+		}
+		
+		/**
+		 * Passes a job to the workers, which generates a sudoku for the scheduled bucket with the highest 
+		 * priority when it starts.
+		 */
+		private void startWorker() {
+			this.executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					generateNext();
+				}
+			});
+		}
+		
+		/**
+		 * Returns the scheduled bucket with the highest priority and marks it as running.
+		 *
+		 * @return the bucket to refill, <code>-1</code> if no bucket is scheduled or the scheduler is paused
+		 */
+		private synchronized int takeBucket() {
+			if (this.paused || this.shutDown) return -1;
+			
+			int result = -1;
+			int resultPriority = -1;
+			for (int bucket = 0; bucket < this.pending.length; bucket++) {
+				if (!this.pending[bucket]) continue;
+				
+				//more extractions and less sudokus increase the priority
+				int priority = (this.extractionCounts[bucket] + 1) * Math.max(0, MAX_SUDOKU_COUNT - dirs[bucket].listFiles().length);
+				if (priority > resultPriority) {
+					result = bucket;
+					resultPriority = priority;
+				}
+			}
+			
+			if (result >= 0) {
+				this.pending[result] = false;
+				this.running[result] = true;
+			}
+			return result;
+		}
+		
+		/**
+		 * Generates a sudoku for the scheduled bucket with the highest priority and schedules the bucket 
+		 * again if it is not refilled yet and its generation was not cancelled.
+		 */
+		private void generateNext() {
+			int bucket = this.takeBucket();
+			if (bucket < 0) return;
+			
+			GeneratorBase generator = null;
+			try {
+				Difficulty difficulty = createDifficulty(bucket);
+				if (DebugHelper.isLogging(PackageName.SudokuFilePool)) {
+					DebugHelper.log(PackageName.SudokuFilePool, "generating sudoku with difficulty " + difficulty);
+				}
+				
+				synchronized (this) {
+					generator = new Generator(SudokuFilePool.this);
+					generator.setAttemptTimeBudget(GENERATION_ATTEMPT_TIME_BUDGET);
+					generator.setTargetSudokuProperties(difficulty, this.baseSudokus.get(bucket).clone());
+					this.generators[bucket] = generator;
+					//paused or cancelled while taking the bucket
+					if (this.paused || this.shutDown) generator.cancel();
+				}
+				
+				generator.run();
+			} catch (RuntimeException e) {
+				DebugHelper.log(PackageName.SudokuFilePool, "error while generating sudoku: " + e.getMessage());
+			}
+			
+			synchronized (this) {
+				this.running[bucket] = false;
+				//the generator is removed if its generation was cancelled
+				if (generator == null || this.generators[bucket] != generator) return;
+				this.generators[bucket] = null;
+			}
+			
+			if (dirs[bucket].listFiles().length < MAX_SUDOKU_COUNT) {
+				this.schedule(bucket);
+			}
+		}
+		
+		/**
+		 * Pauses the generation. The running generators are cancelled, their buckets are scheduled again.
+		 */
+		private synchronized void pause() {
+			this.paused = true;
+			for (GeneratorBase generator : this.generators) {
+				if (generator != null) generator.cancel();
+			}
+		}
+		
+		/**
+		 * Resumes the generation of the scheduled buckets.
+		 */
+		private synchronized void resume() {
+			if (!this.paused || this.shutDown) return;
+			
+			this.paused = false;
+			for (int bucket = 0; bucket < this.pending.length; bucket++) {
+				if (this.pending[bucket]) this.startWorker();
+			}
+		}
+		
+		/**
+		 * Cancels the running generators and unschedules all buckets. A bucket is scheduled again 
+		 * by the next extraction from it.
+		 */
+		private synchronized void cancel() {
+			for (int bucket = 0; bucket < this.pending.length; bucket++) {
+				this.pending[bucket] = false;
+				if (this.generators[bucket] != null) {
+					this.generators[bucket].cancel();
+					this.generators[bucket] = null;
+				}
+			}
+		}
+		
+		/**
+		 * Cancels the generation and stops the worker threads, no bucket can be scheduled anymore.
+		 */
+		private synchronized void shutdown() {
+			this.shutDown = true;
+			this.cancel();
+			this.executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Pauses the generation of sudokus in the background. The running generations are cancelled and 
+	 * continued after {@link #resumeGeneration()}.
+	 */
+	public void pauseGeneration() {
+		this.generationScheduler.pause();
+	}
+	
+	/**
+	 * Resumes the generation of sudokus in the background paused by {@link #pauseGeneration()}.
 	 */
-	private void startSudokuGeneration(Sudoku<DataCell> baseSudoku, Difficulty difficulty) {
-		assert baseSudoku != null && difficulty != null;
-		
-		//if necessary more than one generating thread can be running concurrently
-		GeneratorBase generator = new Generator(this);
-		generator.setTargetSudokuProperties(new DifficultyHard(), baseSudoku.clone());
-		//generator.setTargetSudokuProperties(difficulty, baseSudoku.clone());
-		DebugHelper.log(DebugHelper.PackageName.SudokuFilePool, "starting generation thread for sudoku with difficulty " + difficulty);
-		Thread worker = new Thread(this.threadGroup, generator);
-		worker.setPriority(WORKER_THREADS_PRIORITY);
-		worker.start();
+	public void resumeGeneration() {
+		this.generationScheduler.resume();
+	}
+	
+	/**
+	 * Cancels the generation of sudokus in the background. Sudokus are generated again if 
+	 * a sudoku of a kind which is not complete yet is extracted.
+	 */
+	public void cancelGeneration() {
+		this.generationScheduler.cancel();
+	}
+	
+	/**
+	 * Stops the generation of sudokus of the service and its bound pool, as the service is no longer used.
+	 */
+	@Override
+	public void onDestroy() {
+		super.onDestroy();
+		this.generationScheduler.shutdown();
+		
+		SudokuFilePool boundPool = ((SudokuFilePoolBinder) this.binder).pool;
+		if (boundPool != null) {
+			boundPool.generationScheduler.shutdown();
+		}
 	}
 	
 	/**
@@ -231,7 +490,8 @@ public class SudokuFilePool extends Service implements SudokuPool {
 	}
 
 	/**
-	 * Extracts an unsolved sudoku with the given structure and difficulty from the pool.
+	 * Extracts an unsolved sudoku with the given structure and difficulty from the pool. The pool keeps its sudokus, 
+	 * every extraction returns a stored sudoku transformed by a new random symmetry, so it looks like a new sudoku.
 	 *
 	 * @param structure The {@link FieldStructure} of the sudoku to extract.
 	 * @param difficulty The {@link Difficulty} of the sudoku to extract.
@@ -272,7 +532,9 @@ public class SudokuFilePool extends Service implements SudokuPool {
 			Sudoku<DataCell> result = pickSudokuRandomly(foundSudokus);
 			if (result != null) {
 				this.hasChanged = true;
-				if (foundSudokus.length <= MIN_SUDOKU_COUNT && !initializing) startSudokuGeneration(result, difficulty);
+				int bucket = getBucket(structure, difficulty);
+				this.generationScheduler.sudokuExtracted(bucket, result);
+				if (foundSudokus.length < MAX_SUDOKU_COUNT && !getInitializing()) this.generationScheduler.schedule(bucket);
 			}
 			return result;
 		} else {
@@ -289,12 +551,16 @@ public class SudokuFilePool extends Service implements SudokuPool {
 		Sudoku<DataCell> result;
 		try {
 			result = loadSudoku(foundSudokus[index]);
-			foundSudokus[index].delete();
-			this.hasChanged = true;
 		} catch (IOException e) {
 			result = null;
 		}
-		return result;
+		
+		//the stored sudoku stays in the pool, so an unreadable one is removed
+		if (result == null) {
+			foundSudokus[index].delete();
+			return null;
+		}
+		return this.transformer.transformSudoku(result);
 	}
 	
 	private File getDirectoryForSudokuType(FieldStructure structure, Difficulty diff) {
@@ -393,7 +659,7 @@ public class SudokuFilePool extends Service implements SudokuPool {
 		boolean result = false;
 		if (getSudokuCount(sudoku.getField().getStructure(), difficulty) < MAX_SUDOKU_COUNT) {
 			try {
-				saveSudoku(generateSudokuFile(sudoku.getField().getStructure(), difficulty), (transform ? this.transformer.transformSudoku(sudoku.clone()) : sudoku));
+				saveSudoku(generateSudokuFile(sudoku.getField().getStructure(), difficulty), (transform ? this.transformer.transformSudoku(sudoku) : sudoku));
 				this.hasChanged = true;
 				result = true;
 				DebugHelper.log(DebugHelper.PackageName.SudokuFilePool, "saved generated sudoku with difficulty " + difficulty);
@@ -471,6 +737,40 @@ public class SudokuFilePool extends Service implements SudokuPool {
 	}
 	
 
+	/**
+	 * Returns the sudokus the pool is initialised with.
+	 *
+	 * @param structure The {@link FieldStructure} of the sudokus.
+	 * @param difficulty The {@link Difficulty} of the sudokus.
+	 *
+	 * @return the decoded sudokus, an empty list if there are no sudokus with the given structure and difficulty
+	 *
+	 * @throws IllegalArgumentException if at least one of the given params was <code>null</code>
+	 */
+	public static List<Sudoku<DataCell>> getInitialSudokus(FieldStructure structure, Difficulty difficulty) throws IllegalArgumentException {
+		if (structure == null || difficulty == null) {
+			throw new IllegalArgumentException("at least one of the given parameters was null.");
+		}
+		
+		String[] codes = new String[0];
+		if (structure.getWidth() == 9 && structure.getHeight() == 9) {
+			if (difficulty.toString().equals(new DifficultyEasy().toString())) codes = initial9x9Easy;
+			if (difficulty.toString().equals(new DifficultyMedium().toString())) codes = initial9x9Medium;
+			if (difficulty.toString().equals(new DifficultyHard().toString())) codes = initial9x9Hard;
+		} else if (structure.getWidth() == 16 && structure.getHeight() == 16) {
+			if (difficulty.toString().equals(new DifficultyEasy().toString())) codes = initial16x16Easy;
+			if (difficulty.toString().equals(new DifficultyMedium().toString())) codes = initial16x16Medium;
+			if (difficulty.toString().equals(new DifficultyHard().toString())) codes = initial16x16Hard;
+		}
+		
+		List<Sudoku<DataCell>> result = new ArrayList<Sudoku<DataCell>>(codes.length);
+		for (String code : codes) {
+			String[] split = code.split(" ");
+			result.add(decodeSudoku(split[0], split[1]));
+		}
+		return result;
+	}
+
 	private void initializeFilePool() {
 		Difficulty hdiff = new DifficultyHard();
 		Difficulty mdiff = new DifficultyMedium();
@@ -480,32 +780,32 @@ public class SudokuFilePool extends Service implements SudokuPool {
 			String[] split = null;
 			if (initial9x9Hard.length > i) {
 				split = initial9x9Hard[i].split(" ");
-				addSudoku(decodeSudoku(split[0], split[1]), hdiff, true);
+				addSudoku(decodeSudoku(split[0], split[1]), hdiff, false);
 			}
 			
 			if (initial9x9Medium.length > i) {
 				split = initial9x9Medium[i].split(" ");
-				addSudoku(decodeSudoku(split[0], split[1]), mdiff, true);
+				addSudoku(decodeSudoku(split[0], split[1]), mdiff, false);
 			}
 			
 			if (initial9x9Easy.length > i) {
 				split = initial9x9Easy[i].split(" ");
-				addSudoku(decodeSudoku(split[0], split[1]), ediff, true);
+				addSudoku(decodeSudoku(split[0], split[1]), ediff, false);
 			}
 			
 			if (initial16x16Hard.length > i) {
 				split = initial16x16Hard[i].split(" ");
-				addSudoku(decodeSudoku(split[0], split[1]), hdiff, true);
+				addSudoku(decodeSudoku(split[0], split[1]), hdiff, false);
 			}
 			
 			if (initial16x16Medium.length > i) {
 				split = initial16x16Medium[i].split(" ");
-				addSudoku(decodeSudoku(split[0], split[1]), mdiff, true);
+				addSudoku(decodeSudoku(split[0], split[1]), mdiff, false);
 			}
 			
 			if (initial16x16Easy.length > i) {
 				split = initial16x16Easy[i].split(" ");
-				addSudoku(decodeSudoku(split[0], split[1]), ediff, true);
+				addSudoku(decodeSudoku(split[0], split[1]), ediff, false);
 			}
 
 			if (i == 1) {
@@ -45,6 +45,7 @@
 package org.sudowars.View;
 
 
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 
@@ -415,18 +416,18 @@ public class SudokuField extends View {
 		
 		if (this.showRedundant && (!this.fieldDisabled)) {
 			if (this.game instanceof SingleplayerGame) {
-				Iterator<GameCell> invalidCells = ((SingleplayerGame) this.game).getCellsContainingInvalidValues().iterator();
-				Cell invalidCell;
+				BitSet invalidCells = ((SingleplayerGame) this.game).getInvalidCellIndices();
 				
-				while (invalidCells.hasNext()) {
-					invalidCell = invalidCells.next();
-					DebugHelper.log(DebugHelper.PackageName.SudokuField, "Highlighting illegalValues " + invalidCell.getIndex());
-					if (this.selectedFieldX != -1 && this.selectedFieldY != -1){
-						if (((GameCell) this.game.getSudoku().getField().getCell(this.selectedFieldX, this.selectedFieldY)).equals(invalidCell))
-							activeCellInvalid = true;
-					}
-					int invalidx = invalidCell.getIndex() % width;
-					int invalidy = Math.round( invalidCell.getIndex() / height);
+				if (this.selectedFieldX != -1 && this.selectedFieldY != -1){
+					if (invalidCells.get(this.game.getSudoku().getField().getCell(this.selectedFieldX, this.selectedFieldY).getIndex()))
+						activeCellInvalid = true;
+				}
+				
+				for (int invalidIndex = invalidCells.nextSetBit(0); invalidIndex >= 0; invalidIndex = invalidCells.nextSetBit(invalidIndex + 1)) {
+					if (DebugHelper.isLogging(DebugHelper.PackageName.SudokuField))
+						DebugHelper.log(DebugHelper.PackageName.SudokuField, "Highlighting illegalValues " + invalidIndex);
+					int invalidx = invalidIndex % width;
+					int invalidy = Math.round( invalidIndex / height);
 					canvas.drawRect(new Rect(invalidx * this.squareSize, invalidy * this.squareSize, (invalidx + 1) * this.squareSize, (invalidy + 1) * this.squareSize), this.invalidBoxPaint);
 				}
 			}